@@ -0,0 +1,287 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A compact binary maze format that can be solved straight from a memory map, without a parse step.
+ * Several solver processes opening the same file share its pages in the operating system's cache.
+ *
+ * Layout, all numbers little-endian:
+ * <pre>
+ * 0   magic "BMAZ", int version
+ * 8   int rows, int columns, int wordsPerRow, int exitCount
+ * 24  exitCount pairs of int x, int y, in row-major order
+ *     row index: rows longs, the byte offset of every row
+ *     rows of wordsPerRow longs, one bit per cell (bit y % 64 of word y / 64), 1 for a wall
+ * </pre>
+ * Rows start on whole words so that any row can be read on its own through the index; the bits past the
+ * last column are walls.
+ */
+class BinaryMazeFile {
+    private static final byte[] MAGIC = {'B', 'M', 'A', 'Z'};
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+
+    /**
+     * Converts a maze from the text format to the binary format.
+     *
+     * @param textInput The name of the text maze file.
+     * @param binaryOutput The name of the binary file to write.
+     * @throws IOException If a file cannot be read or written, or the text maze has ragged rows.
+     */
+    public static void convert(String textInput, String binaryOutput) throws IOException {
+        write(BitMazeGrid.load(textInput), binaryOutput);
+    }
+
+    /**
+     * Writes a maze in the binary format.
+     *
+     * @param grid The maze.
+     * @param output The name of the file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(MazeGrid grid, String output) throws IOException {
+        int rows = grid.rows();
+        int columns = grid.columns();
+        int wordsPerRow = (columns + 63) >>> 6;
+        int[] exits = new int[16];
+        int exitCount = 0;
+        for (int x = 0; x < rows; x++) {
+            for (int y = 0; y < columns; y++) {
+                if (grid.isExit(x, y)) {
+                    if (exitCount * 2 == exits.length) {
+                        exits = Arrays.copyOf(exits, exits.length * 2);
+                    }
+                    exits[2 * exitCount] = x;
+                    exits[2 * exitCount + 1] = y;
+                    exitCount++;
+                }
+            }
+        }
+        long indexOffset = indexOffset(exitCount);
+        long dataOffset = indexOffset + 8L * rows;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(output), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put(MAGIC).putInt(VERSION).putInt(rows).putInt(columns).putInt(wordsPerRow).putInt(exitCount);
+            for (int i = 0; i < 2 * exitCount; i++) {
+                putInt(channel, buffer, exits[i]);
+            }
+            for (int x = 0; x < rows; x++) {
+                putLong(channel, buffer, dataOffset + 8L * wordsPerRow * x);
+            }
+            for (int x = 0; x < rows; x++) {
+                for (int w = 0; w < wordsPerRow; w++) {
+                    long walls = -1L;
+                    for (int y = w * 64; y < Math.min(columns, w * 64 + 64); y++) {
+                        if (grid.isOpen(x, y)) {
+                            walls &= ~(1L << y);
+                        }
+                    }
+                    putLong(channel, buffer, walls);
+                }
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    /**
+     * Checks if a file starts with the magic bytes of the binary format.
+     *
+     * @param input The name of the file.
+     * @return true if the file is a binary maze, false otherwise.
+     * @throws IOException If the file cannot be read.
+     */
+    public static boolean isBinary(String input) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(input), StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(MAGIC.length);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // Keep reading until the magic is complete or the file ends
+            }
+            return Arrays.equals(magic.array(), MAGIC) && !magic.hasRemaining();
+        }
+    }
+
+    /**
+     * Opens a binary maze through a read-only memory map. Only the header and exit list are read;
+     * cells are read from the mapped pages when the solver asks for them.
+     *
+     * @param input The name of the binary maze file.
+     * @return The mapped maze.
+     * @throws IOException If the file cannot be read or is not a valid binary maze.
+     */
+    public static MappedMazeGrid open(String input) throws IOException {
+        Path path = Paths.get(input);
+        long size = Files.size(path);
+        if (size < HEADER_BYTES) {
+            throw new IOException("Not a binary maze: " + input);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Binary maze larger than 2 GB: " + input);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, MAGIC) || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a binary maze of version " + VERSION + ": " + input);
+            }
+            int rows = buffer.getInt(8);
+            int columns = buffer.getInt(12);
+            int wordsPerRow = buffer.getInt(16);
+            int exitCount = buffer.getInt(20);
+            long indexOffset = indexOffset(exitCount);
+            if (rows < 0 || columns < 0 || wordsPerRow != (columns + 63) >>> 6 || exitCount < 0
+                    || indexOffset + 8L * rows + 8L * rows * wordsPerRow > size) {
+                throw new IOException("Corrupt binary maze header: " + input);
+            }
+            int[] exits = new int[exitCount];
+            for (int i = 0; i < exitCount; i++) {
+                exits[i] = buffer.getInt(HEADER_BYTES + 8 * i) * columns + buffer.getInt(HEADER_BYTES + 8 * i + 4);
+            }
+            return new MappedMazeGrid(buffer, rows, columns, (int) indexOffset, exits);
+        }
+    }
+
+    /**
+     * Returns the byte offset of the row index, which follows the exit list. The fixed header and the
+     * exit pairs are 8 bytes each, so the index and the rows are always word aligned.
+     *
+     * @param exitCount The number of exits.
+     * @return The offset of the row index.
+     */
+    private static long indexOffset(int exitCount) {
+        return HEADER_BYTES + 8L * exitCount;
+    }
+
+    /**
+     * Appends an int to the buffer, draining it first if it is full.
+     *
+     * @param channel The channel to write to.
+     * @param buffer The buffer.
+     * @param value The value to append.
+     * @throws IOException If writing fails.
+     */
+    private static void putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException {
+        if (buffer.remaining() < 4) {
+            drain(channel, buffer);
+        }
+        buffer.putInt(value);
+    }
+
+    /**
+     * Appends a long to the buffer, draining it first if it is full.
+     *
+     * @param channel The channel to write to.
+     * @param buffer The buffer.
+     * @param value The value to append.
+     * @throws IOException If writing fails.
+     */
+    private static void putLong(FileChannel channel, ByteBuffer buffer, long value) throws IOException {
+        if (buffer.remaining() < 8) {
+            drain(channel, buffer);
+        }
+        buffer.putLong(value);
+    }
+
+    /**
+     * Writes the buffered bytes to the channel and empties the buffer.
+     *
+     * @param channel The channel to write to.
+     * @param buffer The buffer to drain.
+     * @throws IOException If writing fails.
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Converts a text maze to the binary format.
+     *
+     * @param args The text maze file and the binary file to write.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage: java BinaryMazeFile <maze_file> <binary_file>");
+            return;
+        }
+        try {
+            convert(args[0], args[1]);
+        } catch (IOException e) {
+            System.out.println("Error occurred: " + e.getMessage());
+        }
+    }
+}
+
+/**
+ * A read-only maze backed by the memory map of a binary maze file.
+ */
+class MappedMazeGrid implements MazeGrid {
+    private final MappedByteBuffer buffer;
+    private final int rows;
+    private final int columns;
+    private final int indexOffset;
+    private final int[] exits; // Sorted cells of the exits
+
+    /**
+     * Constructs a view of a mapped binary maze.
+     *
+     * @param buffer The mapped file.
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param indexOffset The byte offset of the row index.
+     * @param exits The exit cells in row-major order.
+     */
+    MappedMazeGrid(MappedByteBuffer buffer, int rows, int columns, int indexOffset, int[] exits) {
+        this.buffer = buffer;
+        this.rows = rows;
+        this.columns = columns;
+        this.indexOffset = indexOffset;
+        this.exits = exits;
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public boolean isOpen(int x, int y) {
+        if (x < 0 || x >= rows || y < 0 || y >= columns) {
+            return false;
+        }
+        int row = (int) buffer.getLong(indexOffset + 8 * x);
+        return (buffer.getLong(row + 8 * (y >>> 6)) & (1L << y)) == 0;
+    }
+
+    @Override
+    public boolean isExit(int x, int y) {
+        return x >= 0 && x < rows && y >= 0 && y < columns && Arrays.binarySearch(exits, x * columns + y) >= 0;
+    }
+
+    @Override
+    public char cellAt(int x, int y) {
+        if (isExit(x, y)) {
+            return 'X';
+        }
+        return isOpen(x, y) ? '.' : '#';
+    }
+}
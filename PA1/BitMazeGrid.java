@@ -0,0 +1,361 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A compact maze backend that stores one bit per cell for walls and one bit per cell for visited state.
+ * Both bit sets are flat long arrays in row-major order (cell = x * columns + y), so there is no per-row
+ * object. Exits are rare and kept in a sorted int array of cells.
+ */
+class BitMazeGrid implements MazeGrid {
+    private final int rows;
+    private final int columns;
+    private final long[] walls;    // Bit set: cell cannot be entered
+    private final long[] visited;  // Bit set: cell was tried by the solver
+    private int[] exits;           // Sorted cells of the exits
+    private int exitCount;
+
+    // Largest region mapped at once; MappedByteBuffer is limited to int positions.
+    private static final long MAP_WINDOW = 1L << 30;
+
+    /**
+     * Constructs a grid where every cell is a wall.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @throws IllegalArgumentException If the grid has too many cells to be indexed with an int.
+     */
+    public BitMazeGrid(int rows, int columns) {
+        long cells = (long) rows * columns;
+        if (rows < 0 || columns < 0 || cells > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid maze size: " + rows + "x" + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        int words = (int) ((cells + 63) >>> 6);
+        this.walls = new long[words];
+        this.visited = new long[words];
+        this.exits = new int[4];
+        Arrays.fill(walls, -1L);
+    }
+
+    /**
+     * Constructs a grid from already packed storage.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param walls The wall bit set in row-major order.
+     * @param exits The exit cells in increasing order.
+     * @param exitCount The number of used entries of exits.
+     */
+    private BitMazeGrid(int rows, int columns, long[] walls, int[] exits, int exitCount) {
+        this.rows = rows;
+        this.columns = columns;
+        this.walls = walls;
+        this.visited = new long[walls.length];
+        this.exits = exitCount == 0 ? new int[4] : exits;
+        this.exitCount = exitCount;
+    }
+
+    /**
+     * Loads a maze file into a packed grid in a single pass over a memory map of the file.
+     * The row width is taken from the first line and every other line must have the same width;
+     * both '\n' and '\r\n' line endings are accepted. Bytes are scanned straight into the wall bit set,
+     * so no String or char array is created per row. Files larger than 2 GB are mapped in windows.
+     *
+     * @param input The name of the file containing the maze.
+     * @return The packed maze.
+     * @throws IOException If the file cannot be read, is empty, or has rows of different widths.
+     */
+    public static BitMazeGrid load(String input) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(input), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                throw new IOException("Maze file is empty: " + input);
+            }
+
+            // The first line gives the width, which lets the storage be sized before the scan.
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, MAP_WINDOW));
+            long firstNewline = -1;
+            for (int i = 0; i < window.limit(); i++) {
+                if (window.get(i) == '\n') {
+                    firstNewline = i;
+                    break;
+                }
+            }
+            boolean crlf = firstNewline > 0 && window.get((int) firstNewline - 1) == '\r';
+            long width = firstNewline < 0 ? size : firstNewline - (crlf ? 1 : 0);
+            long lineLength = width + (crlf ? 2 : 1);
+            long maxRows = (size + lineLength - 1) / lineLength;
+            if (width == 0 || width * maxRows > Integer.MAX_VALUE) {
+                throw new IOException("Invalid maze size: " + maxRows + "x" + width);
+            }
+            int columns = (int) width;
+            long[] walls = new long[(int) ((width * maxRows + 63) >>> 6)];
+            Arrays.fill(walls, -1L);
+            int[] exits = new int[4];
+            int exitCount = 0;
+
+            int row = 0;
+            int column = 0;
+            int cell = 0;
+            for (long base = 0; base < size; base += MAP_WINDOW) {
+                if (base > 0) {
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(size - base, MAP_WINDOW));
+                }
+                int limit = window.limit();
+                for (int i = 0; i < limit; i++) {
+                    byte b = window.get(i);
+                    if (b == '\n' || (b == '\r' && crlf)) {
+                        if (b == '\r') {
+                            continue; // Line length is checked on the '\n' that follows
+                        }
+                        if (column != columns) {
+                            throw raggedRow(row, column, columns);
+                        }
+                        row++;
+                        column = 0;
+                        continue;
+                    }
+                    if (column == columns || row == maxRows) {
+                        throw raggedRow(row, column + 1, columns);
+                    }
+                    if (b == '.' || b == 'X') {
+                        walls[cell >>> 6] &= ~(1L << cell);
+                        if (b == 'X') {
+                            if (exitCount == exits.length) {
+                                exits = Arrays.copyOf(exits, exitCount * 2);
+                            }
+                            exits[exitCount++] = cell;
+                        }
+                    }
+                    column++;
+                    cell++;
+                }
+            }
+            if (column > 0) {
+                if (column != columns) {
+                    throw raggedRow(row, column, columns);
+                }
+                row++; // Last row without a trailing newline
+            }
+            if (row != maxRows) {
+                // Only possible when a shorter final line made the size estimate round up
+                throw raggedRow(row, 0, columns);
+            }
+            return new BitMazeGrid(row, columns, walls, exits, exitCount);
+        }
+    }
+
+    /**
+     * Creates the error for a row whose width differs from the first row.
+     *
+     * @param row The index of the offending row.
+     * @param width The width of the offending row.
+     * @param expected The width of the first row.
+     * @return The exception to throw.
+     */
+    private static IOException raggedRow(int row, int width, int expected) {
+        return new IOException("Row " + row + " has " + width + " cells, expected " + expected);
+    }
+
+    /**
+     * Builds a packed grid from a char maze. Rows shorter than the widest row are padded with walls.
+     *
+     * @param mazeGrid A 2D char array representing the maze.
+     * @return The packed grid with the same open cells and exits.
+     */
+    public static BitMazeGrid fromChars(char[][] mazeGrid) {
+        BitMazeGrid grid = new BitMazeGrid(mazeGrid.length, MazeSolver.columnCount(mazeGrid));
+        for (int i = 0; i < mazeGrid.length; i++) {
+            for (int j = 0; j < mazeGrid[i].length; j++) {
+                if (mazeGrid[i][j] == '.') {
+                    grid.setOpen(i, j);
+                } else if (mazeGrid[i][j] == 'X') {
+                    grid.addExit(i, j);
+                }
+            }
+        }
+        return grid;
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Checks if a given position is within the bounds of the grid.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     * @return true if the position is within bounds, false otherwise.
+     */
+    public boolean isInBound(int x, int y) {
+        return x >= 0 && x < rows && y >= 0 && y < columns;
+    }
+
+    @Override
+    public boolean isOpen(int x, int y) {
+        return isInBound(x, y) && !isSet(walls, x * columns + y);
+    }
+
+    @Override
+    public boolean isExit(int x, int y) {
+        return exitCount > 0 && isInBound(x, y) && Arrays.binarySearch(exits, 0, exitCount, x * columns + y) >= 0;
+    }
+
+    /**
+     * Checks if a cell was marked as visited.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     * @return true if the cell was visited, false otherwise.
+     */
+    public boolean isVisited(int x, int y) {
+        return isSet(visited, x * columns + y);
+    }
+
+    /**
+     * Marks a cell as visited.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     */
+    public void markVisited(int x, int y) {
+        int cell = x * columns + y;
+        visited[cell >>> 6] |= 1L << cell;
+    }
+
+    /**
+     * Clears the visited state of every cell.
+     */
+    public void clearVisited() {
+        Arrays.fill(visited, 0L);
+    }
+
+    /**
+     * Makes a cell enterable.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     */
+    public void setOpen(int x, int y) {
+        int cell = x * columns + y;
+        walls[cell >>> 6] &= ~(1L << cell);
+    }
+
+    /**
+     * Turns a cell into a wall. An exit on that cell is removed.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     */
+    public void setWall(int x, int y) {
+        int cell = x * columns + y;
+        walls[cell >>> 6] |= 1L << cell;
+        int index = Arrays.binarySearch(exits, 0, exitCount, cell);
+        if (index >= 0) {
+            System.arraycopy(exits, index + 1, exits, index, exitCount - index - 1);
+            exitCount--;
+        }
+    }
+
+    /**
+     * Makes a cell an exit, which also makes it enterable.
+     * Adding exits in row-major order, as a loader does, is an append.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     */
+    public void addExit(int x, int y) {
+        setOpen(x, y);
+        int cell = x * columns + y;
+        int index = exitCount == 0 || exits[exitCount - 1] < cell
+                ? exitCount : Arrays.binarySearch(exits, 0, exitCount, cell);
+        if (index >= 0 && index < exitCount) {
+            return; // Already an exit
+        }
+        index = index < 0 ? -index - 1 : index;
+        if (exitCount == exits.length) {
+            exits = Arrays.copyOf(exits, exitCount * 2);
+        }
+        System.arraycopy(exits, index, exits, index + 1, exitCount - index);
+        exits[index] = cell;
+        exitCount++;
+    }
+
+    /**
+     * Returns the number of exits.
+     *
+     * @return The exit count.
+     */
+    public int exitCount() {
+        return exitCount;
+    }
+
+    /**
+     * Returns the cell of an exit.
+     *
+     * @param index The position of the exit in row-major order.
+     * @return The cell (x * columns + y) of the exit.
+     */
+    public int exitCell(int index) {
+        return exits[index];
+    }
+
+    @Override
+    public char cellAt(int x, int y) {
+        int cell = x * columns + y;
+        if (isSet(visited, cell)) {
+            return '*';
+        }
+        if (isSet(walls, cell)) {
+            return '#';
+        }
+        return isExit(x, y) ? 'X' : '.';
+    }
+
+    /**
+     * Converts the grid back to a char maze, with tried cells shown as '*'.
+     *
+     * @return A 2D char array representing the maze.
+     */
+    public char[][] toChars() {
+        char[][] mazeGrid = new char[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                mazeGrid[i][j] = cellAt(i, j);
+            }
+        }
+        return mazeGrid;
+    }
+
+    /**
+     * Returns the approximate heap size of the cell storage.
+     *
+     * @return The size in bytes of the wall, visited and exit arrays.
+     */
+    public long storageBytes() {
+        return 8L * walls.length + 8L * visited.length + 4L * exits.length;
+    }
+
+    /**
+     * Checks if a bit of a bit set is set.
+     *
+     * @param bits The bit set.
+     * @param cell The index of the bit.
+     * @return true if the bit is set, false otherwise.
+     */
+    private static boolean isSet(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+}
@@ -0,0 +1,733 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Hierarchical path-finding (HPA*) for many queries on one large maze. The maze is split into square
+ * clusters; wherever open cells face each other across a cluster border, one or two pairs of cells are
+ * chosen as entrances. The entrances and the exits become the nodes of a small abstract graph whose edges
+ * are the crossings between clusters and the precomputed distances between nodes of the same cluster.
+ * A query searches the abstract graph with A* and then refines every abstract edge with a breadth-first
+ * search confined to one cluster. Paths are valid and found whenever one exists, but, as in HPA*, they can be
+ * slightly longer than a shortest path because border crossings are restricted to the entrances.
+ * The abstract graph is kept in compressed sparse row arrays and can be saved and loaded again.
+ */
+class HierarchicalMazeGraph {
+    private final MazeGrid grid;
+    private final int rows;
+    private final int columns;
+    private final int clusterSize;
+    private final int clusterColumns;
+    private final int[] nodeCell;         // Packed cell of every node, grouped by cluster, sorted by cell
+    private final int[] clusterNodeStart; // First node of every cluster, followed by the node count
+    private final boolean[] nodeExit;
+    private final int[] nodeEstimate;     // Manhattan distance from every node to the nearest exit
+    private final int[] edgeStart;        // The edges of node i are edgeStart[i] to edgeStart[i + 1] - 1
+    private final int[] edgeTarget;
+    private final int[] edgeCost;
+
+    // Entrances at least this wide get a crossing at both ends instead of one in the middle.
+    private static final int LONG_ENTRANCE = 6;
+    // With more exits than this the abstract search runs without a heuristic.
+    private static final int MAX_HEURISTIC_EXITS = 64;
+    // Cluster ranges of this size are not split further between threads.
+    private static final int CLUSTERS_PER_TASK = 16;
+    private static final int MAGIC = 0x48504131; // "HPA1"
+
+    // Row and column offsets of the moves in visiting order: east, south, west, north.
+    private static final int[] ROW_STEP = {0, 1, 0, -1};
+    private static final int[] COLUMN_STEP = {1, 0, -1, 0};
+
+    /**
+     * Builds the abstract graph using the common ForkJoinPool.
+     *
+     * @param grid The maze; it is only read, also by later queries.
+     * @param clusterSize The side length of the clusters.
+     */
+    public HierarchicalMazeGraph(MazeGrid grid, int clusterSize) {
+        this(grid, clusterSize, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds the abstract graph. Entrances and intra-cluster distances are computed for the clusters
+     * in parallel.
+     *
+     * @param grid The maze; it is only read, also by later queries.
+     * @param clusterSize The side length of the clusters, at least 2.
+     * @param pool The pool that runs the cluster tasks.
+     * @throws IllegalArgumentException If the cluster size is too small or the maze too large.
+     */
+    public HierarchicalMazeGraph(MazeGrid grid, int clusterSize, ForkJoinPool pool) {
+        if (clusterSize < 2) {
+            throw new IllegalArgumentException("Cluster size must be at least 2: " + clusterSize);
+        }
+        if ((long) grid.rows() * grid.columns() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maze has too many cells for packed indices");
+        }
+        this.grid = grid;
+        this.rows = grid.rows();
+        this.columns = grid.columns();
+        this.clusterSize = clusterSize;
+        this.clusterColumns = (columns + clusterSize - 1) / clusterSize;
+        int clusters = ((rows + clusterSize - 1) / clusterSize) * clusterColumns;
+
+        // Find the exits and the entrance crossings of every cluster.
+        int[][] cells = new int[clusters][];
+        int[][] crossings = new int[clusters][];
+        pool.invoke(new ClusterTask(0, clusters, cluster -> findNodes(cluster, cells, crossings)));
+
+        // Number the nodes by cluster and cell, merging cells found more than once.
+        int total = 0;
+        for (int[] found : cells) {
+            total += found.length;
+        }
+        long[] keys = new long[total];
+        total = 0;
+        for (int[] found : cells) {
+            for (int cell : found) {
+                keys[total++] = ((long) clusterOf(cell) << 32) | cell;
+            }
+        }
+        Arrays.sort(keys);
+        int nodes = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[nodes++] = keys[i];
+            }
+        }
+        this.nodeCell = new int[nodes];
+        this.nodeExit = new boolean[nodes];
+        this.clusterNodeStart = new int[clusters + 1];
+        for (int i = 0; i < nodes; i++) {
+            nodeCell[i] = (int) keys[i];
+            nodeExit[i] = grid.isExit(nodeCell[i] / columns, nodeCell[i] % columns);
+            clusterNodeStart[(int) (keys[i] >>> 32) + 1]++;
+        }
+        for (int c = 0; c < clusters; c++) {
+            clusterNodeStart[c + 1] += clusterNodeStart[c];
+        }
+        this.nodeEstimate = estimates(nodeCell, nodeExit, columns);
+
+        // Measure the distances between the nodes of every cluster.
+        int[][] distances = new int[clusters][];
+        pool.invoke(new ClusterTask(0, clusters, cluster -> connectCluster(cluster, distances)));
+
+        // Lay out both kinds of edges in compressed sparse row form.
+        this.edgeStart = new int[nodes + 1];
+        for (int c = 0; c < clusters; c++) {
+            for (int i = 0; i < crossings[c].length; i += 2) {
+                edgeStart[nodeAt(crossings[c][i]) + 1]++;
+                edgeStart[nodeAt(crossings[c][i + 1]) + 1]++;
+            }
+            for (int i = 0; i < distances[c].length; i += 3) {
+                edgeStart[distances[c][i] + 1]++;
+            }
+        }
+        for (int i = 0; i < nodes; i++) {
+            edgeStart[i + 1] += edgeStart[i];
+        }
+        this.edgeTarget = new int[edgeStart[nodes]];
+        this.edgeCost = new int[edgeStart[nodes]];
+        int[] next = Arrays.copyOf(edgeStart, nodes);
+        for (int c = 0; c < clusters; c++) {
+            for (int i = 0; i < crossings[c].length; i += 2) {
+                int a = nodeAt(crossings[c][i]);
+                int b = nodeAt(crossings[c][i + 1]);
+                addEdge(next, a, b, 1);
+                addEdge(next, b, a, 1);
+            }
+            for (int i = 0; i < distances[c].length; i += 3) {
+                addEdge(next, distances[c][i], distances[c][i + 1], distances[c][i + 2]);
+            }
+        }
+    }
+
+    /**
+     * Constructs a graph from saved arrays.
+     *
+     * @param grid The maze the graph was built for.
+     * @param clusterSize The side length of the clusters.
+     * @param nodeCell The packed cells of the nodes.
+     * @param nodeExit Whether every node is an exit.
+     * @param edgeStart The first edge of every node, followed by the edge count.
+     * @param edgeTarget The target node of every edge.
+     * @param edgeCost The length of every edge.
+     */
+    private HierarchicalMazeGraph(MazeGrid grid, int clusterSize, int[] nodeCell, boolean[] nodeExit,
+                                  int[] edgeStart, int[] edgeTarget, int[] edgeCost) {
+        this.grid = grid;
+        this.rows = grid.rows();
+        this.columns = grid.columns();
+        this.clusterSize = clusterSize;
+        this.clusterColumns = (columns + clusterSize - 1) / clusterSize;
+        this.nodeCell = nodeCell;
+        this.nodeExit = nodeExit;
+        this.edgeStart = edgeStart;
+        this.edgeTarget = edgeTarget;
+        this.edgeCost = edgeCost;
+        this.clusterNodeStart = new int[((rows + clusterSize - 1) / clusterSize) * clusterColumns + 1];
+        for (int cell : nodeCell) {
+            clusterNodeStart[clusterOf(cell) + 1]++;
+        }
+        for (int c = 1; c < clusterNodeStart.length; c++) {
+            clusterNodeStart[c] += clusterNodeStart[c - 1];
+        }
+        this.nodeEstimate = estimates(nodeCell, nodeExit, columns);
+    }
+
+    /**
+     * Computes the heuristic of the abstract search: the Manhattan distance from every node to the
+     * nearest exit. It never overestimates, since no edge is shorter than the Manhattan distance it
+     * covers. With many exits computing it costs more than it saves, and every estimate is 0.
+     *
+     * @param nodeCell The packed cells of the nodes.
+     * @param nodeExit Whether every node is an exit.
+     * @param columns The width used to pack cells.
+     * @return The estimate of every node.
+     */
+    private static int[] estimates(int[] nodeCell, boolean[] nodeExit, int columns) {
+        int[] estimate = new int[nodeCell.length];
+        int exitCount = 0;
+        int[] exits = new int[MAX_HEURISTIC_EXITS];
+        for (int i = 0; i < nodeCell.length; i++) {
+            if (nodeExit[i]) {
+                if (exitCount == MAX_HEURISTIC_EXITS) {
+                    return estimate;
+                }
+                exits[exitCount++] = nodeCell[i];
+            }
+        }
+        exits = Arrays.copyOf(exits, exitCount);
+        for (int i = 0; i < nodeCell.length; i++) {
+            estimate[i] = exitCount == 0 ? 0 : AStarPathFinder.heuristic(nodeCell[i] / columns,
+                    nodeCell[i] % columns, exits, columns);
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the number of nodes of the abstract graph.
+     *
+     * @return The node count.
+     */
+    public int nodeCount() {
+        return nodeCell.length;
+    }
+
+    /**
+     * Returns the number of directed edges of the abstract graph.
+     *
+     * @return The edge count.
+     */
+    public int edgeCount() {
+        return edgeTarget.length;
+    }
+
+    /**
+     * Searches for a path from the given position to an exit. The search is confined to the start's
+     * cluster, the abstract graph and the clusters the abstract path passes through. Like the other path
+     * finders, a start on a wall is still expanded. Queries only read the graph, so several threads may
+     * run them at the same time.
+     *
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @return The result of the search, including the path if one was found.
+     * @throws IllegalArgumentException If the starting position is outside the maze.
+     */
+    public PathResult findPath(int x, int y) {
+        long startTime = System.nanoTime();
+        if (x < 0 || x >= rows || y < 0 || y >= columns) {
+            throw new IllegalArgumentException("Start (" + x + ", " + y + ") is outside the maze");
+        }
+        int start = x * columns + y;
+        if (grid.isExit(x, y)) {
+            return new PathResult(new int[] {start}, columns, 1, 0, System.nanoTime() - startTime);
+        }
+        if (!grid.isOpen(x, y)) {
+            return findPathFromWall(x, y, startTime);
+        }
+
+        // Connect the start to the nodes of its own cluster.
+        ClusterSearch local = new ClusterSearch();
+        local.run(start, -1);
+        int[] distance = new int[nodeCell.length];
+        int[] parent = new int[nodeCell.length];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        LongMinHeap open = new LongMinHeap();
+        int cluster = clusterOf(start);
+        for (int node = clusterNodeStart[cluster]; node < clusterNodeStart[cluster + 1]; node++) {
+            int d = local.distanceTo(nodeCell[node]);
+            if (d >= 0) {
+                distance[node] = d;
+                parent[node] = -1;
+                open.add(AStarPathFinder.key(d + nodeEstimate[node], node));
+            }
+        }
+
+        // A* over the abstract graph until the nearest exit node is settled.
+        long expanded = 0;
+        int maxFrontier = open.size();
+        int goal = -1;
+        while (!open.isEmpty()) {
+            long top = open.poll();
+            int node = (int) top;
+            int d = (int) (top >>> 32) - nodeEstimate[node];
+            if (d > distance[node]) {
+                continue; // A stale entry of a node that was reached more cheaply later
+            }
+            expanded++;
+            if (nodeExit[node]) {
+                goal = node;
+                break;
+            }
+            for (int e = edgeStart[node]; e < edgeStart[node + 1]; e++) {
+                int target = edgeTarget[e];
+                int candidate = d + edgeCost[e];
+                if (candidate < distance[target]) {
+                    distance[target] = candidate;
+                    parent[target] = node;
+                    open.add(AStarPathFinder.key(candidate + nodeEstimate[target], target));
+                }
+            }
+            maxFrontier = Math.max(maxFrontier, open.size());
+        }
+        if (goal < 0) {
+            return new PathResult(null, columns, expanded + local.expanded, maxFrontier,
+                    System.nanoTime() - startTime);
+        }
+
+        // Refine: the start's local path to the first node, then every abstract edge in turn.
+        int hops = 0;
+        for (int node = goal; node >= 0; node = parent[node]) {
+            hops++;
+        }
+        int[] nodes = new int[hops];
+        for (int node = goal, i = hops - 1; node >= 0; node = parent[node], i--) {
+            nodes[i] = node;
+        }
+        int[] path = new int[distance[goal] + 1];
+        int length = local.copyPath(nodeCell[nodes[0]], path, 0);
+        for (int i = 1; i < hops; i++) {
+            int from = nodeCell[nodes[i - 1]];
+            int to = nodeCell[nodes[i]];
+            if (clusterOf(from) != clusterOf(to)) {
+                path[length++] = to; // A crossing between neighbouring cells
+            } else {
+                local.run(from, to);
+                length = local.copyPath(to, path, length - 1);
+            }
+        }
+        return new PathResult(path, columns, expanded + local.expanded, maxFrontier,
+                System.nanoTime() - startTime);
+    }
+
+    /**
+     * Searches from a start on a wall. A wall is not part of any cluster's open area, so the search is
+     * run from each open neighbour, which may lie in another cluster, and the shortest result is kept.
+     *
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @param startTime The time the query started, from System.nanoTime.
+     * @return The result of the search, including the path if one was found.
+     */
+    private PathResult findPathFromWall(int x, int y, long startTime) {
+        PathResult best = null;
+        long expanded = 1;
+        int maxFrontier = 0;
+        for (int d = 0; d < 4; d++) {
+            int nx = x + ROW_STEP[d];
+            int ny = y + COLUMN_STEP[d];
+            if (!grid.isOpen(nx, ny)) {
+                continue;
+            }
+            PathResult result = findPath(nx, ny);
+            expanded += result.getExpandedNodes();
+            maxFrontier = Math.max(maxFrontier, result.getMaxFrontier());
+            if (result.isFound() && (best == null || result.length() < best.length())) {
+                best = result;
+            }
+        }
+        int[] path = null;
+        if (best != null) {
+            path = new int[best.length() + 1];
+            path[0] = x * columns + y;
+            for (int i = 0; i < best.length(); i++) {
+                path[i + 1] = best.getX(i) * columns + best.getY(i);
+            }
+        }
+        return new PathResult(path, columns, expanded, maxFrontier, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Saves the abstract graph so that it can be loaded for the same maze in a later run.
+     *
+     * @param output The name of the file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(String output) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(output), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(rows);
+            out.writeInt(columns);
+            out.writeInt(clusterSize);
+            out.writeInt(nodeCell.length);
+            for (int i = 0; i < nodeCell.length; i++) {
+                out.writeInt(nodeCell[i]);
+                out.writeBoolean(nodeExit[i]);
+            }
+            for (int start : edgeStart) {
+                out.writeInt(start);
+            }
+            for (int e = 0; e < edgeTarget.length; e++) {
+                out.writeInt(edgeTarget[e]);
+                out.writeInt(edgeCost[e]);
+            }
+        }
+    }
+
+    /**
+     * Loads an abstract graph saved by save.
+     *
+     * @param input The name of the file to read.
+     * @param grid The maze the graph was built for.
+     * @return The loaded graph.
+     * @throws IOException If the file cannot be read, is not a saved graph, or was built for a maze
+     *                     of another size.
+     */
+    public static HierarchicalMazeGraph load(String input, MazeGrid grid) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(input), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a saved maze graph: " + input);
+            }
+            int rows = in.readInt();
+            int columns = in.readInt();
+            if (rows != grid.rows() || columns != grid.columns()) {
+                throw new IOException("Graph was built for a " + rows + "x" + columns + " maze: " + input);
+            }
+            int clusterSize = in.readInt();
+            int nodes = in.readInt();
+            int[] nodeCell = new int[nodes];
+            boolean[] nodeExit = new boolean[nodes];
+            for (int i = 0; i < nodes; i++) {
+                nodeCell[i] = in.readInt();
+                nodeExit[i] = in.readBoolean();
+            }
+            int[] edgeStart = new int[nodes + 1];
+            for (int i = 0; i <= nodes; i++) {
+                edgeStart[i] = in.readInt();
+            }
+            int[] edgeTarget = new int[edgeStart[nodes]];
+            int[] edgeCost = new int[edgeStart[nodes]];
+            for (int e = 0; e < edgeTarget.length; e++) {
+                edgeTarget[e] = in.readInt();
+                edgeCost[e] = in.readInt();
+            }
+            return new HierarchicalMazeGraph(grid, clusterSize, nodeCell, nodeExit, edgeStart, edgeTarget, edgeCost);
+        }
+    }
+
+    /**
+     * Collects the exits of a cluster and the entrances on its east and south borders.
+     *
+     * @param cluster The cluster.
+     * @param cells Receives the node cells found for every cluster.
+     * @param crossings Receives the pairs of neighbouring cells that cross a border for every cluster.
+     */
+    private void findNodes(int cluster, int[][] cells, int[][] crossings) {
+        int top = (cluster / clusterColumns) * clusterSize;
+        int left = (cluster % clusterColumns) * clusterSize;
+        int bottom = Math.min(rows, top + clusterSize);
+        int right = Math.min(columns, left + clusterSize);
+        IntList found = new IntList();
+        IntList pairs = new IntList();
+        for (int x = top; x < bottom; x++) {
+            for (int y = left; y < right; y++) {
+                if (grid.isExit(x, y)) {
+                    found.add(x * columns + y);
+                }
+            }
+        }
+        if (right < columns) {
+            addEntrances(top * columns + right - 1, columns, 1, bottom - top, found, pairs);
+        }
+        if (bottom < rows) {
+            addEntrances((bottom - 1) * columns + left, 1, columns, right - left, found, pairs);
+        }
+        cells[cluster] = found.toArray();
+        crossings[cluster] = pairs.toArray();
+    }
+
+    /**
+     * Splits one cluster border into entrances, the runs of cells that are open on both sides, and adds
+     * a crossing in the middle of every short entrance or at both ends of a long one.
+     *
+     * @param first The packed cell at the start of the border, inside the cluster.
+     * @param step The packed distance between neighbouring cells along the border.
+     * @param across The packed distance from a border cell to the cell facing it.
+     * @param length The number of cells along the border.
+     * @param found Receives both cells of every crossing.
+     * @param pairs Receives every crossing as a pair of cells.
+     */
+    private void addEntrances(int first, int step, int across, int length, IntList found, IntList pairs) {
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            int cell = first + i * step;
+            boolean open = i < length && isOpen(cell) && isOpen(cell + across);
+            if (open && runStart < 0) {
+                runStart = i;
+            } else if (!open && runStart >= 0) {
+                int runLength = i - runStart;
+                if (runLength >= LONG_ENTRANCE) {
+                    addCrossing(first + runStart * step, across, found, pairs);
+                    addCrossing(first + (i - 1) * step, across, found, pairs);
+                } else {
+                    addCrossing(first + (runStart + (runLength - 1) / 2) * step, across, found, pairs);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    /**
+     * Records a crossing between a border cell and the cell facing it.
+     *
+     * @param cell The border cell.
+     * @param across The packed distance to the facing cell.
+     * @param found Receives both cells.
+     * @param pairs Receives the pair.
+     */
+    private static void addCrossing(int cell, int across, IntList found, IntList pairs) {
+        found.add(cell);
+        found.add(cell + across);
+        pairs.add(cell);
+        pairs.add(cell + across);
+    }
+
+    /**
+     * Measures the distances between all nodes of a cluster that can reach each other inside it.
+     *
+     * @param cluster The cluster.
+     * @param distances Receives (from, to, distance) triples for every cluster.
+     */
+    private void connectCluster(int cluster, int[][] distances) {
+        ClusterSearch search = new ClusterSearch();
+        IntList found = new IntList();
+        for (int from = clusterNodeStart[cluster]; from < clusterNodeStart[cluster + 1]; from++) {
+            search.run(nodeCell[from], -1);
+            for (int to = clusterNodeStart[cluster]; to < clusterNodeStart[cluster + 1]; to++) {
+                int d = search.distanceTo(nodeCell[to]);
+                if (to != from && d >= 0) {
+                    found.add(from);
+                    found.add(to);
+                    found.add(d);
+                }
+            }
+        }
+        distances[cluster] = found.toArray();
+    }
+
+    /**
+     * Places an edge in the next free slot of its source node.
+     *
+     * @param next The next free edge slot of every node.
+     * @param from The source node.
+     * @param to The target node.
+     * @param cost The length of the edge.
+     */
+    private void addEdge(int[] next, int from, int to, int cost) {
+        edgeTarget[next[from]] = to;
+        edgeCost[next[from]] = cost;
+        next[from]++;
+    }
+
+    /**
+     * Returns the node of a packed cell.
+     *
+     * @param cell A packed cell that is a node.
+     * @return The node.
+     */
+    private int nodeAt(int cell) {
+        int cluster = clusterOf(cell);
+        return Arrays.binarySearch(nodeCell, clusterNodeStart[cluster], clusterNodeStart[cluster + 1], cell);
+    }
+
+    /**
+     * Returns the cluster of a packed cell.
+     *
+     * @param cell The packed cell.
+     * @return The cluster, numbered row by row.
+     */
+    private int clusterOf(int cell) {
+        return (cell / columns / clusterSize) * clusterColumns + (cell % columns) / clusterSize;
+    }
+
+    /**
+     * Checks if a packed cell is open.
+     *
+     * @param cell The packed cell.
+     * @return true if the cell is open, false otherwise.
+     */
+    private boolean isOpen(int cell) {
+        return grid.isOpen(cell / columns, cell % columns);
+    }
+
+    /**
+     * A breadth-first search that never leaves the cluster of its source. Its arrays cover one cluster
+     * and are reused from search to search.
+     */
+    private final class ClusterSearch {
+        private final int[] distance = new int[clusterSize * clusterSize]; // -1 for cells not reached
+        private final int[] parent = new int[clusterSize * clusterSize];
+        private final int[] queue = new int[clusterSize * clusterSize];
+        private int top;
+        private int left;
+        long expanded;
+
+        /**
+         * Searches from a cell until the whole cluster is covered or the target is reached.
+         *
+         * @param source The packed cell to start from; it is expanded even if it is a wall.
+         * @param target The packed cell to stop at, or -1 to cover the cluster.
+         */
+        void run(int source, int target) {
+            int sx = source / columns;
+            int sy = source % columns;
+            top = sx - sx % clusterSize;
+            left = sy - sy % clusterSize;
+            int height = Math.min(clusterSize, rows - top);
+            int width = Math.min(clusterSize, columns - left);
+            int stop = target < 0 ? -1 : local(target);
+            Arrays.fill(distance, -1);
+            int head = 0;
+            int tail = 0;
+            int first = local(source);
+            distance[first] = 0;
+            parent[first] = first;
+            queue[tail++] = first;
+            while (head < tail) {
+                int cell = queue[head++];
+                expanded++;
+                if (cell == stop) {
+                    return;
+                }
+                int cx = cell / clusterSize;
+                int cy = cell % clusterSize;
+                for (int d = 0; d < 4; d++) {
+                    int nx = cx + ROW_STEP[d];
+                    int ny = cy + COLUMN_STEP[d];
+                    if (nx < 0 || nx >= height || ny < 0 || ny >= width) {
+                        continue;
+                    }
+                    int next = nx * clusterSize + ny;
+                    if (distance[next] >= 0 || !grid.isOpen(top + nx, left + ny)) {
+                        continue;
+                    }
+                    distance[next] = distance[cell] + 1;
+                    parent[next] = cell;
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        /**
+         * Returns the distance of a cell of the searched cluster from the source.
+         *
+         * @param cell The packed cell.
+         * @return The number of moves, or -1 if the search did not reach it.
+         */
+        int distanceTo(int cell) {
+            return distance[local(cell)];
+        }
+
+        /**
+         * Writes the path from the source to a reached cell into a path array.
+         *
+         * @param cell The packed cell the path ends at.
+         * @param path The array to write to.
+         * @param offset The index the source is written at.
+         * @return The index after the last written cell.
+         */
+        int copyPath(int cell, int[] path, int offset) {
+            int end = offset + distanceTo(cell);
+            for (int i = end, at = local(cell); i >= offset; i--, at = parent[at]) {
+                path[i] = (top + at / clusterSize) * columns + left + at % clusterSize;
+            }
+            return end + 1;
+        }
+
+        /**
+         * Converts a packed cell of the searched cluster to its index within the cluster.
+         *
+         * @param cell The packed cell.
+         * @return The local index.
+         */
+        private int local(int cell) {
+            return (cell / columns - top) * clusterSize + cell % columns - left;
+        }
+    }
+
+    /**
+     * Runs per-cluster work over a range of clusters, splitting the range in half until it is small.
+     */
+    private static class ClusterTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int firstCluster;
+        private final int endCluster;
+        private final IntConsumer work;
+
+        /**
+         * Constructs a task over clusters [firstCluster, endCluster).
+         *
+         * @param firstCluster The first cluster.
+         * @param endCluster One past the last cluster.
+         * @param work The work to run for every cluster.
+         */
+        ClusterTask(int firstCluster, int endCluster, IntConsumer work) {
+            this.firstCluster = firstCluster;
+            this.endCluster = endCluster;
+            this.work = work;
+        }
+
+        @Override
+        protected void compute() {
+            if (endCluster - firstCluster > CLUSTERS_PER_TASK) {
+                int middle = (firstCluster + endCluster) >>> 1;
+                invokeAll(new ClusterTask(firstCluster, middle, work), new ClusterTask(middle, endCluster, work));
+                return;
+            }
+            for (int cluster = firstCluster; cluster < endCluster; cluster++) {
+                work.accept(cluster);
+            }
+        }
+    }
+
+    /**
+     * A growable list of primitive ints.
+     */
+    private static class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+import java.util.Arrays;
+
+/**
+ * A shortest-path solver for a maze whose walls change between queries, such as doors opening and closing.
+ * It keeps a distance-to-exit field and repairs only the cells whose distance changes after openCell or
+ * closeCell, following Lifelong Planning A* (LPA*): the field grows from every exit toward the fixed
+ * starting position, guided by the Manhattan distance to the start, and inconsistent cells are queued
+ * and fixed in key order. The solver works on its own copy of the cells and never modifies the maze.
+ */
+class IncrementalMazeSolver {
+    private final int rows;
+    private final int columns;
+    private final int start;
+    private final byte[] cells;  // WALL, OPEN or EXIT for every cell
+    private final int[] g;       // Current distance to the nearest exit
+    private final int[] rhs;     // One-step lookahead of the distance
+    private final IndexedHeap queue;
+
+    private static final byte WALL = 0;
+    private static final byte OPEN = 1;
+    private static final byte EXIT = 2;
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    // Row and column offsets of the moves in visiting order: east, south, west, north.
+    private static final int[] ROW_STEP = {0, 1, 0, -1};
+    private static final int[] COLUMN_STEP = {1, 0, -1, 0};
+
+    /**
+     * Constructs a solver for paths from a fixed starting position to any exit.
+     *
+     * @param grid The maze; its cells are copied.
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @throws IllegalArgumentException If the starting position is outside the maze.
+     */
+    public IncrementalMazeSolver(MazeGrid grid, int x, int y) {
+        this.rows = grid.rows();
+        this.columns = grid.columns();
+        if (x < 0 || x >= rows || y < 0 || y >= columns) {
+            throw new IllegalArgumentException("Start (" + x + ", " + y + ") is outside the maze");
+        }
+        this.start = x * columns + y;
+        this.cells = new byte[rows * columns];
+        this.g = new int[rows * columns];
+        this.rhs = new int[rows * columns];
+        this.queue = new IndexedHeap(rows * columns);
+        Arrays.fill(g, INFINITY);
+        Arrays.fill(rhs, INFINITY);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                int cell = i * columns + j;
+                if (grid.isExit(i, j)) {
+                    cells[cell] = EXIT;
+                    rhs[cell] = 0;
+                    queue.insert(cell, key(cell));
+                } else if (grid.isOpen(i, j)) {
+                    cells[cell] = OPEN;
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes a cell enterable. Has no effect on open cells and exits.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @throws IllegalArgumentException If the cell is outside the maze.
+     */
+    public void openCell(int x, int y) {
+        int cell = cellAt(x, y);
+        if (cells[cell] == WALL) {
+            cells[cell] = OPEN;
+            updateAround(cell);
+        }
+    }
+
+    /**
+     * Turns a cell into a wall. Closing an exit removes it.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @throws IllegalArgumentException If the cell is outside the maze.
+     */
+    public void closeCell(int x, int y) {
+        int cell = cellAt(x, y);
+        if (cells[cell] != WALL) {
+            cells[cell] = WALL;
+            updateAround(cell);
+        }
+    }
+
+    /**
+     * Packs the coordinates of a cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The packed cell.
+     * @throws IllegalArgumentException If the cell is outside the maze.
+     */
+    private int cellAt(int x, int y) {
+        if (x < 0 || x >= rows || y < 0 || y >= columns) {
+            throw new IllegalArgumentException("Cell (" + x + ", " + y + ") is outside the maze");
+        }
+        return x * columns + y;
+    }
+
+    /**
+     * Brings the distance field up to date with all changes since the last call and returns a shortest
+     * path from the start to an exit. The expanded node count covers only the repair work of this call.
+     *
+     * @return The path, or a result without a path if no exit can be reached.
+     */
+    public PathResult solve() {
+        long startTime = System.nanoTime();
+        long expanded = 0;
+        int maxFrontier = queue.size();
+
+        while (!queue.isEmpty() && (queue.topKey() < key(start) || rhs[start] != g[start])) {
+            int cell = queue.poll();
+            expanded++;
+            if (g[cell] > rhs[cell]) {
+                g[cell] = rhs[cell];
+                updateNeighbours(cell);
+            } else {
+                g[cell] = INFINITY;
+                updateVertex(cell);
+                updateNeighbours(cell);
+            }
+            maxFrontier = Math.max(maxFrontier, queue.size());
+        }
+        return new PathResult(tracePath(), columns, expanded, maxFrontier, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Returns the current distance from the start to the nearest exit, as of the last solve.
+     *
+     * @return The number of moves, or -1 if no exit can be reached.
+     */
+    public int distance() {
+        return g[start] == INFINITY ? -1 : g[start];
+    }
+
+    /**
+     * Follows the distance field downhill from the start to an exit.
+     *
+     * @return The packed cells of the path, or null if the start cannot reach an exit.
+     */
+    private int[] tracePath() {
+        if (g[start] == INFINITY) {
+            return null;
+        }
+        int[] path = new int[g[start] + 1];
+        path[0] = start;
+        for (int i = 1; i < path.length; i++) {
+            int cell = path[i - 1];
+            int best = -1;
+            for (int d = 0; d < 4; d++) {
+                int neighbour = neighbour(cell, d);
+                if (neighbour >= 0 && cells[neighbour] != WALL && g[neighbour] != INFINITY
+                        && (best < 0 || g[neighbour] < g[best])) {
+                    best = neighbour;
+                }
+            }
+            path[i] = best;
+        }
+        return path;
+    }
+
+    /**
+     * Recomputes a changed cell and its neighbours, whose distances may depend on it.
+     *
+     * @param cell The changed cell.
+     */
+    private void updateAround(int cell) {
+        updateVertex(cell);
+        updateNeighbours(cell);
+    }
+
+    /**
+     * Recomputes the four neighbours of a cell.
+     *
+     * @param cell The cell.
+     */
+    private void updateNeighbours(int cell) {
+        for (int d = 0; d < 4; d++) {
+            int neighbour = neighbour(cell, d);
+            if (neighbour >= 0) {
+                updateVertex(neighbour);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the lookahead distance of a cell and queues it if it became inconsistent.
+     * Exits have distance 0 and walls cannot be passed, except the start, which reachExit also
+     * expands when it is a wall.
+     *
+     * @param cell The cell.
+     */
+    private void updateVertex(int cell) {
+        if (cells[cell] == EXIT) {
+            rhs[cell] = 0;
+        } else if (cells[cell] == WALL && cell != start) {
+            rhs[cell] = INFINITY;
+        } else {
+            int best = INFINITY;
+            for (int d = 0; d < 4; d++) {
+                int neighbour = neighbour(cell, d);
+                if (neighbour >= 0 && cells[neighbour] != WALL && g[neighbour] < best) {
+                    best = g[neighbour];
+                }
+            }
+            rhs[cell] = best == INFINITY ? INFINITY : best + 1;
+        }
+        queue.remove(cell);
+        if (g[cell] != rhs[cell]) {
+            queue.insert(cell, key(cell));
+        }
+    }
+
+    /**
+     * Returns the priority of a cell: its distance plus the Manhattan distance to the start, with ties
+     * broken by the distance alone.
+     *
+     * @param cell The cell.
+     * @return The packed key, or Long.MAX_VALUE for a cell with no known distance.
+     */
+    private long key(int cell) {
+        int distance = Math.min(g[cell], rhs[cell]);
+        if (distance == INFINITY) {
+            return Long.MAX_VALUE;
+        }
+        long heuristic = Math.abs(cell / columns - start / columns) + Math.abs(cell % columns - start % columns);
+        return ((distance + heuristic) << 32) | distance;
+    }
+
+    /**
+     * Returns a neighbour of a cell.
+     *
+     * @param cell The cell.
+     * @param direction The index of the move.
+     * @return The neighbouring cell, or -1 if it is outside the maze.
+     */
+    private int neighbour(int cell, int direction) {
+        int x = cell / columns + ROW_STEP[direction];
+        int y = cell % columns + COLUMN_STEP[direction];
+        return x >= 0 && x < rows && y >= 0 && y < columns ? x * columns + y : -1;
+    }
+
+    /**
+     * A binary min-heap of cells that knows where each cell is, so queued cells can be removed.
+     */
+    private static class IndexedHeap {
+        private int[] heap = new int[64];
+        private long[] keys = new long[64];
+        private final int[] position;  // Index in the heap plus one, 0 when the cell is not queued
+        private int size;
+
+        /**
+         * Constructs an empty heap for cells 0 to cells - 1.
+         *
+         * @param cells The number of cells.
+         */
+        IndexedHeap(int cells) {
+            this.position = new int[cells];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long topKey() {
+            return keys[0];
+        }
+
+        /**
+         * Adds a cell that is not queued.
+         *
+         * @param cell The cell.
+         * @param key Its priority.
+         */
+        void insert(int cell, long key) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            place(size++, cell, key);
+            siftUp(size - 1);
+        }
+
+        /**
+         * Removes and returns the cell with the smallest key.
+         *
+         * @return The cell.
+         */
+        int poll() {
+            int top = heap[0];
+            remove(top);
+            return top;
+        }
+
+        /**
+         * Removes a cell if it is queued.
+         *
+         * @param cell The cell.
+         */
+        void remove(int cell) {
+            int index = position[cell] - 1;
+            if (index < 0) {
+                return;
+            }
+            position[cell] = 0;
+            size--;
+            if (index == size) {
+                return;
+            }
+            place(index, heap[size], keys[size]);
+            siftDown(index);
+            siftUp(index);
+        }
+
+        private void siftUp(int index) {
+            int cell = heap[index];
+            long key = keys[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                place(index, heap[parent], keys[parent]);
+                index = parent;
+            }
+            place(index, cell, key);
+        }
+
+        private void siftDown(int index) {
+            int cell = heap[index];
+            long key = keys[index];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                place(index, heap[child], keys[child]);
+                index = child;
+            }
+            place(index, cell, key);
+        }
+
+        private void place(int index, int cell, long key) {
+            heap[index] = cell;
+            keys[index] = key;
+            position[cell] = index + 1;
+        }
+    }
+}
@@ -0,0 +1,483 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Benchmarks for the maze solvers. Run with: java MazeBenchmark [name ...] [--size=N]
+ * Without names every benchmark runs.
+ *
+ * Each measured operation is warmed up first, and its input is prepared outside the measured time.
+ * Results are the average time per operation and the bytes allocated per operation by the measuring
+ * thread, which is what JMH reports as gc.alloc.rate.norm with -prof gc.
+ */
+public class MazeBenchmark {
+    private static final int WARMUP_ITERATIONS = 2;
+    private static final int MEASURED_ITERATIONS = 5;
+
+    // Side length of the generated mazes, set with --size=N.
+    private static int size = 1000;
+
+    // The real standard output; System.out is silenced while solvers print their results.
+    private static final PrintStream REPORT = System.out;
+
+    /**
+     * Prepares the input of one measured operation.
+     *
+     * @param <T> The type of the input.
+     */
+    interface Setup<T> {
+        T prepare() throws Exception;
+    }
+
+    /**
+     * An operation to measure.
+     *
+     * @param <T> The type of the input.
+     */
+    interface Operation<T> {
+        void run(T input) throws Exception;
+    }
+
+    /**
+     * Measures an operation and prints its average time and allocation per operation.
+     *
+     * @param label The name printed with the result.
+     * @param setup Prepares a fresh input for every iteration; not measured.
+     * @param operation The operation to measure.
+     * @param <T> The type of the input.
+     * @throws Exception If the setup or the operation fails.
+     */
+    static <T> void measure(String label, Setup<T> setup, Operation<T> operation) throws Exception {
+        com.sun.management.ThreadMXBean threads = SolverStats.allocationCounter();
+        long nanos = 0;
+        long bytes = 0;
+        PrintStream silent = new PrintStream(OutputStream.nullOutputStream());
+        for (int i = 0; i < WARMUP_ITERATIONS + MEASURED_ITERATIONS; i++) {
+            T input = setup.prepare();
+            System.setOut(silent);
+            long allocatedBefore = threads == null ? 0 : threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            try {
+                operation.run(input);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                long allocated = threads == null ? 0 : threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+                System.setOut(REPORT);
+                if (i >= WARMUP_ITERATIONS) {
+                    nanos += elapsed;
+                    bytes += allocated;
+                }
+            }
+        }
+        REPORT.printf("  %-28s %12.3f ms/op %16s B/op%n", label, nanos / 1e6 / MEASURED_ITERATIONS,
+                threads == null ? "n/a" : String.format("%,d", bytes / MEASURED_ITERATIONS));
+    }
+
+    /**
+     * Measures loading, solving and printing on generated mazes of several shapes and densities.
+     *
+     * @throws Exception If a maze file cannot be written or read.
+     */
+    static void pipeline() throws Exception {
+        int odd = size | 1; // Perfect mazes need an odd size to have walls on both borders
+        pipeline("perfect", MazeGenerator.perfect(odd, odd, 1), 1, 1);
+        pipeline("rooms", MazeGenerator.rooms(size, size, 25, 1), 0, 0);
+        pipeline("spiral", MazeGenerator.spiral(size, size), 0, 0);
+        for (double density : new double[] {0.1, 0.3}) {
+            char[][] maze = MazeGenerator.random(size, size, density, 1, 1);
+            maze[0][0] = '.';
+            pipeline("random-" + density, maze, 0, 0);
+        }
+    }
+
+    /**
+     * Measures every pipeline stage on one maze.
+     *
+     * @param shape The name of the maze shape.
+     * @param maze The maze.
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @throws Exception If the maze file cannot be written or read.
+     */
+    private static void pipeline(String shape, char[][] maze, int x, int y) throws Exception {
+        REPORT.printf("%s %dx%d%n", shape, maze.length, maze[0].length);
+        File file = File.createTempFile("maze-" + shape, ".txt");
+        File binary = File.createTempFile("maze-" + shape, ".bmz");
+        try {
+            writeMaze(maze, file);
+            String path = file.getPath();
+            BinaryMazeFile.write(new CharMazeGrid(maze), binary.getPath());
+            measure("readMazeGrid", () -> path, MazeSolver::readMazeGrid);
+            measure("BitMazeGrid.load", () -> path, BitMazeGrid::load);
+            measure("BinaryMazeFile.open", binary::getPath, BinaryMazeFile::open);
+            measure("reachExit", () -> new MazeSolver(MazeGenerator.copy(maze)), s -> s.reachExit(x, y));
+            measure("reachExitIterative", () -> new MazeSolver(MazeGenerator.copy(maze)),
+                    s -> s.reachExitIterative(x, y));
+            measure("reachExitIterative packed", () -> new MazeSolver(BitMazeGrid.fromChars(maze)),
+                    s -> s.reachExitIterative(x, y));
+            measure("reachExitBidirectional", () -> new MazeSolver(MazeGenerator.copy(maze)),
+                    s -> s.reachExitBidirectional(x, y));
+            ReusableMazeSolver reusable = new ReusableMazeSolver(new CharMazeGrid(maze));
+            measure("ReusableMazeSolver", () -> reusable, s -> s.reachExit(x, y));
+            ReusableMazeSolver mapped = new ReusableMazeSolver(BinaryMazeFile.open(binary.getPath()));
+            measure("ReusableMazeSolver mapped", () -> mapped, s -> s.reachExit(x, y));
+            for (PathFinder finder : new PathFinder[] {
+                    new DepthFirstPathFinder(), new BreadthFirstPathFinder(), new AStarPathFinder(),
+                    new JumpPointPathFinder()}) {
+                measure("PathFinder " + finder.name(), () -> finder, f -> f.findPath(maze, x, y));
+                REPORT.printf("  %-28s %s%n", "", finder.findPath(maze, x, y));
+            }
+            measure("printMaze", () -> new MazeRenderer(OutputStream.nullOutputStream()), r -> {
+                r.render(maze);
+                r.flush();
+            });
+        } finally {
+            Files.deleteIfExists(file.toPath());
+            Files.deleteIfExists(binary.toPath());
+        }
+    }
+
+    /**
+     * Writes a maze in the text format read by readMazeGrid.
+     *
+     * @param maze The maze.
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void writeMaze(char[][] maze, File file) throws IOException {
+        StringBuilder text = new StringBuilder(maze.length * (maze[0].length + 1));
+        for (char[] row : maze) {
+            text.append(row).append('\n');
+        }
+        Files.writeString(file.toPath(), text);
+    }
+
+    /**
+     * Compares answering many "can this start reach an exit?" queries with MazeReachability
+     * against running reachExitIterative on a fresh copy of the maze for each query.
+     */
+    static void reachability() {
+        int queries = 100_000;
+        int loopQueries = 200; // The per-query loop is too slow to run all queries
+        char[][] maze = MazeGenerator.random(size, size, 0.35, 20, 42);
+        Random random = new Random(7);
+        int[] xs = new int[queries];
+        int[] ys = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            xs[i] = random.nextInt(size);
+            ys[i] = random.nextInt(size);
+        }
+
+        long start = System.nanoTime();
+        MazeReachability reachability = new MazeReachability(BitMazeGrid.fromChars(maze));
+        long labelNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        boolean[] answers = reachability.canReachExit(xs, ys);
+        long queryNanos = System.nanoTime() - start;
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long loopNanos;
+        int mismatches = 0;
+        try {
+            start = System.nanoTime();
+            for (int i = 0; i < loopQueries; i++) {
+                boolean solved = new MazeSolver(MazeGenerator.copy(maze)).reachExitIterative(xs[i], ys[i]);
+                if (solved != answers[i]) {
+                    mismatches++;
+                }
+            }
+            loopNanos = System.nanoTime() - start;
+        } finally {
+            System.setOut(out);
+        }
+
+        double loopPerQuery = (double) loopNanos / loopQueries;
+        System.out.printf("reachability %dx%d, %d queries%n", size, size, queries);
+        System.out.printf("  union-find labeling:   %10.3f ms%n", labelNanos / 1e6);
+        System.out.printf("  union-find queries:    %10.3f ms (%.1f ns/query)%n",
+                queryNanos / 1e6, (double) queryNanos / queries);
+        System.out.printf("  reachExit loop:        %10.3f ms/query, %.1f s estimated for all queries%n",
+                loopPerQuery / 1e6, loopPerQuery * queries / 1e9);
+        System.out.printf("  answers differing from reachExit: %d of %d%n", mismatches, loopQueries);
+    }
+
+    /**
+     * Compares many DFS queries on one maze with a single ReusableMazeSolver against creating
+     * a MazeSolver on a fresh copy of the maze for every query.
+     */
+    static void reuse() {
+        int queries = 500;
+        char[][] maze = MazeGenerator.random(size, size, 0.4, 5, 11);
+        Random random = new Random(3);
+        int[] xs = new int[queries];
+        int[] ys = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            xs[i] = random.nextInt(size);
+            ys[i] = random.nextInt(size);
+        }
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long freshNanos;
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                new MazeSolver(MazeGenerator.copy(maze)).reachExitIterative(xs[i], ys[i]);
+            }
+            freshNanos = System.nanoTime() - start;
+        } finally {
+            System.setOut(out);
+        }
+
+        ReusableMazeSolver solver = new ReusableMazeSolver(new CharMazeGrid(maze));
+        long start = System.nanoTime();
+        int solved = 0;
+        for (int i = 0; i < queries; i++) {
+            if (solver.reachExit(xs[i], ys[i])) {
+                solved++;
+            }
+        }
+        long reuseNanos = System.nanoTime() - start;
+
+        System.out.printf("reuse %dx%d, %d queries (%d solved)%n", size, size, queries, solved);
+        System.out.printf("  fresh MazeSolver per query: %10.3f ms/query%n", freshNanos / 1e6 / queries);
+        System.out.printf("  ReusableMazeSolver:         %10.3f ms/query%n", reuseNanos / 1e6 / queries);
+    }
+
+    /**
+     * Measures how IncrementalMazeSolver repairs its path after a door on the path closes and reopens,
+     * against a breadth-first search from scratch, on open-room mazes of growing size.
+     */
+    static void incremental() {
+        int changes = 20;
+        for (int side : new int[] {size / 4, size / 2, size}) {
+            char[][] maze = MazeGenerator.rooms(side, side, 25, 5);
+            long start = System.nanoTime();
+            IncrementalMazeSolver solver = new IncrementalMazeSolver(new CharMazeGrid(maze), 0, 0);
+            PathResult path = solver.solve();
+            long initialNanos = System.nanoTime() - start;
+
+            Random random = new Random(9);
+            long updateNanos = 0;
+            long updateExpanded = 0;
+            long scratchNanos = 0;
+            int applied = 0;
+            // A door needs a cell strictly inside the path; stop once there is no such path any more.
+            for (int i = 0; i < changes && path.isFound() && path.length() > 2; i++) {
+                int index = 1 + random.nextInt(path.length() - 2);
+                int x = path.getX(index);
+                int y = path.getY(index);
+                for (boolean close : new boolean[] {true, false}) {
+                    maze[x][y] = close ? '#' : '.';
+                    start = System.nanoTime();
+                    if (close) {
+                        solver.closeCell(x, y);
+                    } else {
+                        solver.openCell(x, y);
+                    }
+                    PathResult repaired = solver.solve();
+                    updateNanos += System.nanoTime() - start;
+                    updateExpanded += repaired.getExpandedNodes();
+                    scratchNanos += new BreadthFirstPathFinder().findPath(maze, 0, 0).getElapsedNanos();
+                    path = repaired;
+                    applied++;
+                }
+            }
+            System.out.printf("incremental rooms %dx%d: initial solve %.3f ms, %d changes%n",
+                    side, side, initialNanos / 1e6, applied);
+            if (applied == 0) {
+                continue;
+            }
+            System.out.printf("  repair:       %10.3f ms/change, %10.1f expanded/change%n",
+                    updateNanos / 1e6 / applied, (double) updateExpanded / applied);
+            System.out.printf("  BFS re-solve: %10.3f ms/change%n", scratchNanos / 1e6 / applied);
+        }
+    }
+
+    /**
+     * Measures building, saving and loading a HierarchicalMazeGraph and compares its queries with
+     * breadth-first search on the same starting positions, including how much longer its paths are.
+     *
+     * @throws IOException If the graph cannot be saved or loaded.
+     */
+    static void hierarchical() throws IOException {
+        int queries = 200;
+        char[][] maze = MazeGenerator.random(size, size, 0.3, 5, 13);
+        CharMazeGrid grid = new CharMazeGrid(maze);
+        Random random = new Random(17);
+
+        long start = System.nanoTime();
+        HierarchicalMazeGraph graph = new HierarchicalMazeGraph(grid, 32);
+        long buildNanos = System.nanoTime() - start;
+        File file = File.createTempFile("maze-graph", ".bin");
+        long saveNanos;
+        long loadNanos;
+        try {
+            start = System.nanoTime();
+            graph.save(file.getPath());
+            saveNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            graph = HierarchicalMazeGraph.load(file.getPath(), grid);
+            loadNanos = System.nanoTime() - start;
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+
+        long hierarchicalNanos = 0;
+        long bfsNanos = 0;
+        long hierarchicalLength = 0;
+        long bfsLength = 0;
+        int solved = 0;
+        PathFinder bfs = new BreadthFirstPathFinder();
+        for (int i = 0; i < queries; i++) {
+            int x = random.nextInt(size);
+            int y = random.nextInt(size);
+            PathResult abstractPath = graph.findPath(x, y);
+            PathResult shortest = bfs.findPath(maze, x, y);
+            hierarchicalNanos += abstractPath.getElapsedNanos();
+            bfsNanos += shortest.getElapsedNanos();
+            if (abstractPath.isFound() && shortest.isFound()) {
+                solved++;
+                hierarchicalLength += abstractPath.length();
+                bfsLength += shortest.length();
+            }
+        }
+
+        System.out.printf("hierarchical random-0.3 %dx%d, clusters of 32: %d nodes, %d edges%n",
+                size, size, graph.nodeCount(), graph.edgeCount());
+        System.out.printf("  build %.3f ms, save %.3f ms, load %.3f ms%n",
+                buildNanos / 1e6, saveNanos / 1e6, loadNanos / 1e6);
+        System.out.printf("  HPA* query: %10.3f ms/query%n", hierarchicalNanos / 1e6 / queries);
+        System.out.printf("  BFS query:  %10.3f ms/query%n", bfsNanos / 1e6 / queries);
+        System.out.printf("  %d solved, HPA* paths %.2f%% longer than shortest%n",
+                solved, bfsLength == 0 ? 0.0 : 100.0 * (hierarchicalLength - bfsLength) / bfsLength);
+    }
+
+    /**
+     * Load-tests MazeService: for a rising number of concurrent clients, each client sends queries one
+     * after another and waits for every answer. Reports the latency percentiles from submission to answer
+     * and the throughput of all clients together.
+     *
+     * @throws Exception If a query fails or the clients are interrupted.
+     */
+    static void service() throws Exception {
+        int queries = 2000;
+        char[][] maze = MazeGenerator.random(size, size, 0.4, 5, 11);
+        Random random = new Random(5);
+        int[] xs = new int[queries];
+        int[] ys = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            xs[i] = random.nextInt(size);
+            ys[i] = random.nextInt(size);
+        }
+        BitMazeGrid grid = BitMazeGrid.fromChars(maze);
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("service random-0.4 %dx%d, %d queries, %d solvers%n", size, size, queries, processors);
+        for (int clients = 1; clients <= 64; clients *= 4) {
+            long[] latencies = new long[queries];
+            long start;
+            long wall;
+            try (MazeService service = new MazeService(grid, processors)) {
+                ExecutorService clientThreads = Executors.newFixedThreadPool(clients);
+                List<Callable<Void>> work = new ArrayList<>();
+                for (int c = 0; c < clients; c++) {
+                    int first = c;
+                    int step = clients;
+                    work.add(() -> {
+                        for (int i = first; i < queries; i += step) {
+                            long sent = System.nanoTime();
+                            service.submit(xs[i], ys[i]).get();
+                            latencies[i] = System.nanoTime() - sent;
+                        }
+                        return null;
+                    });
+                }
+                start = System.nanoTime();
+                for (Future<Void> done : clientThreads.invokeAll(work)) {
+                    done.get();
+                }
+                wall = System.nanoTime() - start;
+                clientThreads.shutdown();
+            }
+            Arrays.sort(latencies);
+            System.out.printf("  %2d clients: p50 %8.3f ms, p99 %8.3f ms, %10.1f queries/s%n", clients,
+                    latencies[queries / 2] / 1e6, latencies[queries * 99 / 100] / 1e6, queries / (wall / 1e9));
+        }
+    }
+
+    /**
+     * Runs the benchmarks named on the command line, or all of them.
+     *
+     * @param names The names of the benchmarks to run.
+     * @throws Exception If a benchmark fails.
+     */
+    private static void run(String[] names) throws Exception {
+        for (String name : names) {
+            switch (name) {
+                case "pipeline":
+                    pipeline();
+                    break;
+                case "incremental":
+                    incremental();
+                    break;
+                case "reachability":
+                    reachability();
+                    break;
+                case "reuse":
+                    reuse();
+                    break;
+                case "hierarchical":
+                    hierarchical();
+                    break;
+                case "service":
+                    service();
+                    break;
+                default:
+                    System.out.println("Unknown benchmark: " + name);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Parses the command line and runs the benchmarks on a thread with a large stack,
+     * so that the recursive reachExit can be measured on big mazes.
+     *
+     * @param args The names of the benchmarks to run and optionally --size=N.
+     * @throws InterruptedException If interrupted while waiting for the benchmarks.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        List<String> names = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--size=")) {
+                size = Integer.parseInt(arg.substring("--size=".length()));
+            } else {
+                names.add(arg);
+            }
+        }
+        if (names.isEmpty()) {
+            names.addAll(List.of("pipeline", "reachability", "reuse", "incremental", "hierarchical", "service"));
+        }
+        Thread runner = new Thread(null, () -> {
+            try {
+                run(names.toArray(new String[0]));
+            } catch (Exception e) {
+                System.out.println("Error occurred: " + e.getMessage());
+            }
+        }, "benchmark", 1L << 30);
+        runner.start();
+        runner.join();
+    }
+}
@@ -0,0 +1,193 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates mazes in the text format used by MazeSolver, for benchmarks and experiments.
+ */
+class MazeGenerator {
+
+    /**
+     * Generates a maze of independently placed walls with exits on random open cells.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param wallDensity The probability of a cell being a wall, between 0 and 1.
+     * @param exits The number of exits to place.
+     * @param seed The seed of the random generator.
+     * @return A 2D char array representing the maze.
+     */
+    public static char[][] random(int rows, int columns, double wallDensity, int exits, long seed) {
+        Random random = new Random(seed);
+        char[][] mazeGrid = new char[rows][columns];
+        for (char[] row : mazeGrid) {
+            for (int j = 0; j < columns; j++) {
+                row[j] = random.nextDouble() < wallDensity ? '#' : '.';
+            }
+        }
+        placeExits(mazeGrid, exits, random);
+        return mazeGrid;
+    }
+
+    /**
+     * Generates a perfect maze: corridors one cell wide with exactly one path between any two cells,
+     * carved by an iterative randomized depth-first search. Corridors run on odd coordinates, so a search
+     * should start at (1, 1); the exit is placed on the corridor cell farthest down and right.
+     *
+     * @param rows The number of rows, at least 3.
+     * @param columns The number of columns, at least 3.
+     * @param seed The seed of the random generator.
+     * @return A 2D char array representing the maze.
+     */
+    public static char[][] perfect(int rows, int columns, long seed) {
+        Random random = new Random(seed);
+        char[][] mazeGrid = new char[rows][columns];
+        for (char[] row : mazeGrid) {
+            Arrays.fill(row, '#');
+        }
+        int cellRows = (rows - 1) / 2;
+        int cellColumns = (columns - 1) / 2;
+        int[] stack = new int[cellRows * cellColumns];
+        int size = 0;
+        stack[size++] = 0;
+        mazeGrid[1][1] = '.';
+        int[] candidates = new int[4];
+        while (size > 0) {
+            int cell = stack[size - 1];
+            int r = cell / cellColumns;
+            int c = cell % cellColumns;
+            int count = 0;
+            if (c + 1 < cellColumns && mazeGrid[2 * r + 1][2 * c + 3] == '#') {
+                candidates[count++] = cell + 1;
+            }
+            if (r + 1 < cellRows && mazeGrid[2 * r + 3][2 * c + 1] == '#') {
+                candidates[count++] = cell + cellColumns;
+            }
+            if (c > 0 && mazeGrid[2 * r + 1][2 * c - 1] == '#') {
+                candidates[count++] = cell - 1;
+            }
+            if (r > 0 && mazeGrid[2 * r - 1][2 * c + 1] == '#') {
+                candidates[count++] = cell - cellColumns;
+            }
+            if (count == 0) {
+                size--;
+                continue;
+            }
+            int next = candidates[random.nextInt(count)];
+            int nr = next / cellColumns;
+            int nc = next % cellColumns;
+            mazeGrid[r + nr + 1][c + nc + 1] = '.'; // The wall between the two cells
+            mazeGrid[2 * nr + 1][2 * nc + 1] = '.';
+            stack[size++] = next;
+        }
+        mazeGrid[2 * cellRows - 1][2 * cellColumns - 1] = 'X';
+        return mazeGrid;
+    }
+
+    /**
+     * Generates a maze of open square rooms separated by one-cell walls, with a door at a random place
+     * in every wall segment. The exit is in the bottom right room.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param roomSize The side length of a room including its wall.
+     * @param seed The seed of the random generator.
+     * @return A 2D char array representing the maze.
+     */
+    public static char[][] rooms(int rows, int columns, int roomSize, long seed) {
+        Random random = new Random(seed);
+        char[][] mazeGrid = new char[rows][columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                boolean wall = (i % roomSize == roomSize - 1) || (j % roomSize == roomSize - 1);
+                mazeGrid[i][j] = wall ? '#' : '.';
+            }
+        }
+        int span = roomSize - 1;
+        for (int top = 0; top < rows; top += roomSize) {
+            for (int left = 0; left < columns; left += roomSize) {
+                int door = random.nextInt(span);
+                if (left + span < columns && top + door < rows) {
+                    mazeGrid[top + door][left + span] = '.'; // East wall
+                }
+                door = random.nextInt(span);
+                if (top + span < rows && left + door < columns) {
+                    mazeGrid[top + span][left + door] = '.'; // South wall
+                }
+            }
+        }
+        int x = rows - 1;
+        int y = columns - 1;
+        while (mazeGrid[x][y] == '#') {
+            x--; // Step diagonally off the outer walls into the last room
+            y--;
+        }
+        mazeGrid[x][y] = 'X';
+        return mazeGrid;
+    }
+
+    /**
+     * Generates nested rectangular walls with one gap each, alternating between opposite corners,
+     * so the only way from the outside at (0, 0) to the exit in the centre winds around every ring.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @return A 2D char array representing the maze.
+     */
+    public static char[][] spiral(int rows, int columns) {
+        char[][] mazeGrid = new char[rows][columns];
+        for (char[] row : mazeGrid) {
+            Arrays.fill(row, '.');
+        }
+        for (int d = 1, ring = 0; 2 * d < rows - 1 && 2 * d < columns - 1; d += 2, ring++) {
+            int bottom = rows - 1 - d;
+            int right = columns - 1 - d;
+            for (int j = d; j <= right; j++) {
+                mazeGrid[d][j] = '#';
+                mazeGrid[bottom][j] = '#';
+            }
+            for (int i = d; i <= bottom; i++) {
+                mazeGrid[i][d] = '#';
+                mazeGrid[i][right] = '#';
+            }
+            if (ring % 2 == 0) {
+                mazeGrid[bottom][right - 1] = '.';
+            } else {
+                mazeGrid[d][d + 1] = '.';
+            }
+        }
+        mazeGrid[rows / 2][columns / 2] = 'X';
+        return mazeGrid;
+    }
+
+    /**
+     * Turns random open cells into exits.
+     *
+     * @param mazeGrid The maze to modify.
+     * @param exits The number of exits to place.
+     * @param random The random generator.
+     */
+    static void placeExits(char[][] mazeGrid, int exits, Random random) {
+        for (int placed = 0, attempts = 0; placed < exits && attempts < 1000 * exits; attempts++) {
+            int x = random.nextInt(mazeGrid.length);
+            int y = random.nextInt(mazeGrid[x].length);
+            if (mazeGrid[x][y] == '.') {
+                mazeGrid[x][y] = 'X';
+                placed++;
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of a maze, for solvers that mark the grid they run on.
+     *
+     * @param mazeGrid A 2D char array representing the maze.
+     * @return A copy with its own row arrays.
+     */
+    public static char[][] copy(char[][] mazeGrid) {
+        char[][] copy = new char[mazeGrid.length][];
+        for (int i = 0; i < mazeGrid.length; i++) {
+            copy[i] = mazeGrid[i].clone();
+        }
+        return copy;
+    }
+}
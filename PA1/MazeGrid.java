@@ -0,0 +1,92 @@
+/**
+ * Read access to a rectangular maze, independent of how its cells are stored.
+ * Cells are addressed by x (row) and y (column) like in MazeSolver.
+ */
+interface MazeGrid {
+
+    /**
+     * Returns the number of rows of the maze.
+     *
+     * @return The row count.
+     */
+    int rows();
+
+    /**
+     * Returns the number of columns of the maze. Shorter rows are padded with walls.
+     *
+     * @return The column count.
+     */
+    int columns();
+
+    /**
+     * Checks if a position is inside the maze and can be entered, i.e. it is an empty cell or an exit.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     * @return true if the cell is open, false if it is a wall or out of bounds.
+     */
+    boolean isOpen(int x, int y);
+
+    /**
+     * Checks if the given position is an exit of the maze.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     * @return true if the position is an exit, false otherwise.
+     */
+    boolean isExit(int x, int y);
+
+    /**
+     * Returns the character of a cell in the text maze format: '#', '.', 'X' or '*' for a tried cell.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     * @return The character of the cell.
+     */
+    char cellAt(int x, int y);
+}
+
+/**
+ * A read-only MazeGrid view of a char maze as returned by MazeSolver.readMazeGrid.
+ * Rows shorter than the widest row behave as if padded with walls.
+ */
+class CharMazeGrid implements MazeGrid {
+    private final char[][] mazeGrid;
+    private final int columns;
+
+    /**
+     * Constructs a view of a char maze.
+     *
+     * @param mazeGrid A 2D char array representing the maze.
+     */
+    public CharMazeGrid(char[][] mazeGrid) {
+        this.mazeGrid = mazeGrid;
+        this.columns = MazeSolver.columnCount(mazeGrid);
+    }
+
+    @Override
+    public int rows() {
+        return mazeGrid.length;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public boolean isOpen(int x, int y) {
+        return x >= 0 && x < mazeGrid.length && y >= 0 && y < mazeGrid[x].length
+                && (mazeGrid[x][y] == '.' || mazeGrid[x][y] == 'X');
+    }
+
+    @Override
+    public boolean isExit(int x, int y) {
+        return x >= 0 && x < mazeGrid.length && y >= 0 && y < mazeGrid[x].length && mazeGrid[x][y] == 'X';
+    }
+
+    @Override
+    public char cellAt(int x, int y) {
+        return y < mazeGrid[x].length ? mazeGrid[x][y] : '#';
+    }
+}
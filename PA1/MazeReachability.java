@@ -0,0 +1,236 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Answers "can a search starting here reach an exit?" for many starting positions on one maze.
+ * The open cells are labeled with their connected component once, using union-find over row stripes
+ * on a ForkJoinPool. After that every query is a constant-time lookup: a start reaches an exit exactly
+ * when its component contains an 'X' cell.
+ */
+class MazeReachability {
+    private final BitMazeGrid grid;
+    private final int[] component;      // Root cell of the component of every cell
+    private final long[] exitComponents; // Bit set of the roots whose component contains an exit
+
+    // Stripes below this many cells are not split further.
+    private static final int MIN_STRIPE_CELLS = 1 << 16;
+
+    /**
+     * Labels the components of a maze using the common ForkJoinPool.
+     *
+     * @param grid The packed maze.
+     */
+    public MazeReachability(BitMazeGrid grid) {
+        this(grid, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Labels the components of a maze.
+     *
+     * @param grid The packed maze.
+     * @param pool The pool that runs the stripe tasks.
+     */
+    public MazeReachability(BitMazeGrid grid, ForkJoinPool pool) {
+        this.grid = grid;
+        int rows = grid.rows();
+        int columns = grid.columns();
+        this.component = new int[rows * columns];
+
+        // Each stripe is a block of whole rows that is unioned independently of the others.
+        int rowsPerStripe = Math.max(1, Math.max(MIN_STRIPE_CELLS / Math.max(1, columns),
+                rows / (pool.getParallelism() * 4)));
+        int stripes = rows == 0 ? 0 : (rows + rowsPerStripe - 1) / rowsPerStripe;
+        pool.invoke(new StripeTask(0, stripes, rowsPerStripe, false));
+
+        // Join neighbouring stripes along their border rows.
+        for (int s = 1; s < stripes; s++) {
+            int x = s * rowsPerStripe;
+            for (int y = 0; y < columns; y++) {
+                if (grid.isOpen(x, y) && grid.isOpen(x - 1, y)) {
+                    union(x * columns + y, (x - 1) * columns + y);
+                }
+            }
+        }
+
+        // Point every cell straight at its root so that queries need a single lookup.
+        pool.invoke(new StripeTask(0, stripes, rowsPerStripe, true));
+
+        this.exitComponents = new long[(component.length + 63) >>> 6];
+        for (int i = 0; i < grid.exitCount(); i++) {
+            int root = component[grid.exitCell(i)];
+            exitComponents[root >>> 6] |= 1L << root;
+        }
+    }
+
+    /**
+     * Checks if a search starting at the given position can reach an exit, like reachExit would.
+     * A start on a wall is still expanded by reachExit, so its open neighbours are checked in that case.
+     *
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @return true if an exit is reachable, false otherwise.
+     */
+    public boolean canReachExit(int x, int y) {
+        if (!grid.isInBound(x, y)) {
+            return false;
+        }
+        if (grid.isOpen(x, y)) {
+            return reachesExit(x * grid.columns() + y);
+        }
+        return (grid.isOpen(x, y + 1) && reachesExit(x * grid.columns() + y + 1))
+                || (grid.isOpen(x + 1, y) && reachesExit((x + 1) * grid.columns() + y))
+                || (grid.isOpen(x, y - 1) && reachesExit(x * grid.columns() + y - 1))
+                || (grid.isOpen(x - 1, y) && reachesExit((x - 1) * grid.columns() + y));
+    }
+
+    /**
+     * Answers a batch of queries.
+     *
+     * @param xs The x-coordinates of the starting positions.
+     * @param ys The y-coordinates of the starting positions.
+     * @return For every starting position, whether it can reach an exit.
+     */
+    public boolean[] canReachExit(int[] xs, int[] ys) {
+        boolean[] answers = new boolean[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            answers[i] = canReachExit(xs[i], ys[i]);
+        }
+        return answers;
+    }
+
+    /**
+     * Checks if two positions are open cells of the same component.
+     *
+     * @param x1 The x-coordinate of the first position.
+     * @param y1 The y-coordinate of the first position.
+     * @param x2 The x-coordinate of the second position.
+     * @param y2 The y-coordinate of the second position.
+     * @return true if one can be reached from the other, false otherwise.
+     */
+    public boolean isConnected(int x1, int y1, int x2, int y2) {
+        return grid.isOpen(x1, y1) && grid.isOpen(x2, y2)
+                && component[x1 * grid.columns() + y1] == component[x2 * grid.columns() + y2];
+    }
+
+    /**
+     * Checks if the component of an open cell contains an exit.
+     *
+     * @param cell The open cell.
+     * @return true if the component contains an exit, false otherwise.
+     */
+    private boolean reachesExit(int cell) {
+        int root = component[cell];
+        return (exitComponents[root >>> 6] & (1L << root)) != 0;
+    }
+
+    /**
+     * Finds the root of a cell, halving the path on the way.
+     *
+     * @param cell The cell.
+     * @return The root of the cell's set.
+     */
+    private int find(int cell) {
+        while (component[cell] != cell) {
+            component[cell] = component[component[cell]];
+            cell = component[cell];
+        }
+        return cell;
+    }
+
+    /**
+     * Finds the root of a cell without changing any cell on the way.
+     *
+     * @param cell The cell.
+     * @return The root of the cell's set.
+     */
+    private int root(int cell) {
+        while (component[cell] != cell) {
+            cell = component[cell];
+        }
+        return cell;
+    }
+
+    /**
+     * Merges the sets of two cells. The larger root is linked under the smaller one, so a set that lies
+     * inside one stripe always has its root inside that stripe.
+     *
+     * @param a The first cell.
+     * @param b The second cell.
+     */
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA < rootB) {
+            component[rootB] = rootA;
+        } else if (rootB < rootA) {
+            component[rootA] = rootB;
+        }
+    }
+
+    /**
+     * Runs the union or the flattening step over a range of stripes, splitting it in half until
+     * a single stripe is left.
+     */
+    private class StripeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int firstStripe;
+        private final int endStripe;
+        private final int rowsPerStripe;
+        private final boolean flatten;
+
+        /**
+         * Constructs a task over stripes [firstStripe, endStripe).
+         *
+         * @param firstStripe The first stripe.
+         * @param endStripe One past the last stripe.
+         * @param rowsPerStripe The number of rows in a stripe.
+         * @param flatten true to point cells at their roots, false to union neighbouring open cells.
+         */
+        StripeTask(int firstStripe, int endStripe, int rowsPerStripe, boolean flatten) {
+            this.firstStripe = firstStripe;
+            this.endStripe = endStripe;
+            this.rowsPerStripe = rowsPerStripe;
+            this.flatten = flatten;
+        }
+
+        @Override
+        protected void compute() {
+            if (endStripe - firstStripe > 1) {
+                int middle = (firstStripe + endStripe) >>> 1;
+                invokeAll(new StripeTask(firstStripe, middle, rowsPerStripe, flatten),
+                        new StripeTask(middle, endStripe, rowsPerStripe, flatten));
+                return;
+            }
+            int columns = grid.columns();
+            int firstRow = firstStripe * rowsPerStripe;
+            int endRow = Math.min(grid.rows(), firstRow + rowsPerStripe);
+            if (flatten) {
+                // Roots found here may have been linked by the border pass, so the walk crosses into other
+                // stripes. It only reads there: every value it can see is the old parent or the root, both
+                // ancestors, and each stripe writes only its own cells, so no cell is left short of its root.
+                for (int cell = firstRow * columns; cell < endRow * columns; cell++) {
+                    component[cell] = root(cell);
+                }
+                return;
+            }
+            for (int cell = firstRow * columns; cell < endRow * columns; cell++) {
+                component[cell] = cell;
+            }
+            for (int x = firstRow; x < endRow; x++) {
+                for (int y = 0; y < columns; y++) {
+                    if (!grid.isOpen(x, y)) {
+                        continue;
+                    }
+                    int cell = x * columns + y;
+                    if (grid.isOpen(x, y + 1)) {
+                        union(cell, cell + 1);
+                    }
+                    if (x + 1 < endRow && grid.isOpen(x + 1, y)) {
+                        union(cell, cell + columns);
+                    }
+                }
+            }
+        }
+    }
+}
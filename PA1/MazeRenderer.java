@@ -0,0 +1,194 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes mazes in the same text layout as MazeSolver.printMaze (every cell followed by a space, one row
+ * per line) without a print call per cell. Each row is encoded into a reused byte array and rows are
+ * collected in a large buffer that is written to the channel in blocks. Besides the whole maze it can
+ * render a viewport or a downsampled overview of mazes too big to print.
+ * Maze cells are expected to be ASCII characters.
+ */
+class MazeRenderer {
+    // Rows end with the platform line separator, as System.out.println ends them.
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private byte[] row = new byte[256];
+
+    // Size of the blocks written to the channel.
+    private static final int BLOCK_SIZE = 1 << 20;
+
+    /**
+     * Constructs a renderer that writes to a channel.
+     *
+     * @param channel The channel to write to.
+     */
+    public MazeRenderer(WritableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BLOCK_SIZE);
+    }
+
+    /**
+     * Constructs a renderer that writes to an output stream, e.g. System.out.
+     *
+     * @param out The stream to write to.
+     */
+    public MazeRenderer(OutputStream out) {
+        this(Channels.newChannel(out));
+    }
+
+    /**
+     * Renders a char maze. Rows are printed with their own length, like printMaze.
+     *
+     * @param mazeGrid A 2D char array representing the maze.
+     * @throws IOException If writing to the channel fails.
+     */
+    public void render(char[][] mazeGrid) throws IOException {
+        for (char[] cells : mazeGrid) {
+            int length = startRow(cells.length);
+            for (int j = 0; j < cells.length; j++) {
+                row[2 * j] = (byte) cells[j];
+            }
+            endRow(length);
+        }
+    }
+
+    /**
+     * Renders the whole maze.
+     *
+     * @param grid The maze.
+     * @throws IOException If writing to the channel fails.
+     */
+    public void render(MazeGrid grid) throws IOException {
+        renderViewport(grid, 0, 0, grid.rows(), grid.columns());
+    }
+
+    /**
+     * Renders a rectangular part of the maze. Parts of the rectangle outside the maze are skipped.
+     *
+     * @param grid The maze.
+     * @param top The first row to render.
+     * @param left The first column to render.
+     * @param height The number of rows to render.
+     * @param width The number of columns to render.
+     * @throws IOException If writing to the channel fails.
+     */
+    public void renderViewport(MazeGrid grid, int top, int left, int height, int width) throws IOException {
+        int firstRow = Math.max(0, top);
+        int endRow = (int) Math.min(grid.rows(), (long) top + height);
+        int firstColumn = Math.max(0, left);
+        int endColumn = (int) Math.min(grid.columns(), (long) left + width);
+        for (int x = firstRow; x < endRow; x++) {
+            int length = startRow(Math.max(0, endColumn - firstColumn));
+            for (int y = firstColumn; y < endColumn; y++) {
+                row[2 * (y - firstColumn)] = (byte) grid.cellAt(x, y);
+            }
+            endRow(length);
+        }
+    }
+
+    /**
+     * Renders a downsampled overview where every factor x factor block of cells becomes one character.
+     * A block shows the most telling cell it contains, in the order 'X', '*', '.', '#'.
+     *
+     * @param grid The maze.
+     * @param factor The side length of the blocks.
+     * @throws IOException If writing to the channel fails.
+     */
+    public void renderOverview(MazeGrid grid, int factor) throws IOException {
+        if (factor < 1) {
+            throw new IllegalArgumentException("Overview factor must be positive: " + factor);
+        }
+        int blockColumns = (grid.columns() + factor - 1) / factor;
+        for (int top = 0; top < grid.rows(); top += factor) {
+            int length = startRow(blockColumns);
+            int bottom = Math.min(grid.rows(), top + factor);
+            for (int b = 0; b < blockColumns; b++) {
+                int right = Math.min(grid.columns(), (b + 1) * factor);
+                int best = 0;
+                for (int x = top; x < bottom && best < 3; x++) {
+                    for (int y = b * factor; y < right && best < 3; y++) {
+                        best = Math.max(best, rank(grid.cellAt(x, y)));
+                    }
+                }
+                row[2 * b] = (byte) "#.*X".charAt(best);
+            }
+            endRow(length);
+        }
+    }
+
+    /**
+     * Writes all buffered rows to the channel.
+     *
+     * @throws IOException If writing to the channel fails.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Prepares the reused row array for a row of cells, filling in the separators and the line separator.
+     *
+     * @param cells The number of cells in the row.
+     * @return The number of bytes of the encoded row.
+     */
+    private int startRow(int cells) {
+        int length = 2 * cells + LINE_SEPARATOR.length;
+        if (row.length < length) {
+            row = new byte[Math.max(length, row.length * 2)];
+        }
+        for (int j = 1; j < 2 * cells; j += 2) {
+            row[j] = ' ';
+        }
+        System.arraycopy(LINE_SEPARATOR, 0, row, 2 * cells, LINE_SEPARATOR.length);
+        return length;
+    }
+
+    /**
+     * Appends an encoded row to the buffer, writing a block to the channel when the buffer is full.
+     *
+     * @param length The number of bytes of the encoded row.
+     * @throws IOException If writing to the channel fails.
+     */
+    private void endRow(int length) throws IOException {
+        if (length > buffer.remaining()) {
+            flush();
+        }
+        if (length > buffer.capacity()) {
+            ByteBuffer wide = ByteBuffer.wrap(row, 0, length);
+            while (wide.hasRemaining()) {
+                channel.write(wide);
+            }
+            return;
+        }
+        buffer.put(row, 0, length);
+    }
+
+    /**
+     * Returns the priority of a cell in the overview.
+     *
+     * @param cell The character of the cell.
+     * @return 3 for an exit, 2 for a tried cell, 1 for an empty cell and 0 otherwise.
+     */
+    private static int rank(char cell) {
+        switch (cell) {
+            case 'X':
+                return 3;
+            case '*':
+                return 2;
+            case '.':
+                return 1;
+            default:
+                return 0;
+        }
+    }
+}
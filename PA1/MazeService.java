@@ -0,0 +1,234 @@
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Answers many (x, y) queries concurrently against one loaded maze. The maze is shared read-only by all
+ * queries; the mutable search state (the stamp array and path of a ReusableMazeSolver) is kept in a pool
+ * and lent to one query at a time, so no query ever writes to the maze or sees another query's state.
+ * The pool grows on demand up to a limit, after which queries wait for a solver to be returned; this
+ * bounds memory at one stamp array per solver no matter how many queries are in flight.
+ */
+class MazeService implements AutoCloseable {
+    private final MazeGrid grid;
+    private final ExecutorService executor;
+    private final BlockingQueue<ReusableMazeSolver> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger created = new AtomicInteger();
+    private final int maxSolvers;
+
+    /**
+     * Constructs a service that runs queries on newQueryExecutor.
+     *
+     * @param grid The maze; it must not change while the service runs.
+     * @param maxSolvers The largest number of queries that search at the same time.
+     */
+    public MazeService(MazeGrid grid, int maxSolvers) {
+        this(grid, maxSolvers, newQueryExecutor());
+    }
+
+    /**
+     * Constructs a service.
+     *
+     * @param grid The maze; it must not change while the service runs.
+     * @param maxSolvers The largest number of queries that search at the same time.
+     * @param executor The executor that runs submitted queries; it is shut down by close.
+     */
+    public MazeService(MazeGrid grid, int maxSolvers, ExecutorService executor) {
+        if (maxSolvers < 1) {
+            throw new IllegalArgumentException("At least one solver is needed: " + maxSolvers);
+        }
+        this.grid = grid;
+        this.maxSolvers = maxSolvers;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns an executor that starts a virtual thread per query when the JVM has them (Java 21 and
+     * later), and otherwise a cached pool of platform threads, which likewise never queues a query
+     * behind another one.
+     *
+     * @return The executor.
+     */
+    static ExecutorService newQueryExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Answers a query on the calling thread with a pooled solver.
+     *
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @return The depth-first path to the exit reached, or a result without a path.
+     * @throws InterruptedException If interrupted while waiting for a free solver.
+     * @throws IllegalArgumentException If the starting position is outside the maze.
+     */
+    public PathResult solve(int x, int y) throws InterruptedException {
+        ReusableMazeSolver solver = borrow();
+        try {
+            long start = System.nanoTime();
+            solver.reachExit(x, y);
+            return solver.result(System.nanoTime() - start);
+        } finally {
+            idle.add(solver);
+        }
+    }
+
+    /**
+     * Answers a query on the service's executor.
+     *
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @return The pending result.
+     */
+    public Future<PathResult> submit(int x, int y) {
+        return executor.submit(() -> solve(x, y));
+    }
+
+    /**
+     * Returns the number of solvers created so far.
+     *
+     * @return The pool size.
+     */
+    public int solverCount() {
+        return created.get();
+    }
+
+    /**
+     * Takes an idle solver, creating one while the pool is below its limit and waiting otherwise.
+     *
+     * @return The solver, owned by the caller until it is put back.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private ReusableMazeSolver borrow() throws InterruptedException {
+        ReusableMazeSolver solver = idle.poll();
+        if (solver != null) {
+            return solver;
+        }
+        while (true) {
+            int count = created.get();
+            if (count >= maxSolvers) {
+                return idle.take();
+            }
+            if (created.compareAndSet(count, count + 1)) {
+                return new ReusableMazeSolver(grid);
+            }
+        }
+    }
+
+    /**
+     * Stops accepting queries and waits for the submitted ones to finish. If the waiting thread is
+     * interrupted, it stops waiting and keeps its interrupt status set; the queries still finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loads a maze once and answers queries read from standard input, one "x y" pair per line.
+     * Queries run concurrently; answers are printed in the order of the queries, as the exit coordinates
+     * or "There is no solution!". A line that is not two integers is answered with an error in its place
+     * and the remaining queries still run; blank lines are skipped.
+     *
+     * @param args The maze file, in the text format or the binary format of BinaryMazeFile, and optionally
+     *             --solvers=N to limit the number of queries searching at once (default: processor count).
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java MazeService <maze_file> [--solvers=N] < queries");
+            return;
+        }
+        int solvers = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--solvers=")) {
+                solvers = Integer.parseInt(args[i].substring("--solvers=".length()));
+            } else {
+                System.out.println("Unknown option: " + args[i]);
+                return;
+            }
+        }
+        try {
+            MazeGrid grid = BinaryMazeFile.isBinary(args[0])
+                    ? BinaryMazeFile.open(args[0]) : BitMazeGrid.load(args[0]);
+            try (MazeService service = new MazeService(grid, solvers);
+                 BufferedReader in = new BufferedReader(new InputStreamReader(System.in))) {
+                // Keep a bounded window of queries in flight and print the oldest once it is done.
+                Deque<Future<PathResult>> pending = new ArrayDeque<>();
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    pending.add(submit(service, line));
+                    if (pending.size() >= 4 * solvers) {
+                        printAnswer(pending.poll());
+                    }
+                }
+                while (!pending.isEmpty()) {
+                    printAnswer(pending.poll());
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("Error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Submits the query of an input line. A malformed line becomes a failed query, so its error is
+     * printed in order with the other answers.
+     *
+     * @param service The service.
+     * @param line The line, "x y".
+     * @return The pending result.
+     */
+    private static Future<PathResult> submit(MazeService service, String line) {
+        String[] fields = line.trim().split("\\s+");
+        try {
+            if (fields.length == 2) {
+                return service.submit(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]));
+            }
+        } catch (NumberFormatException e) {
+            // Reported below like a line with the wrong number of fields.
+        }
+        return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid query: " + line));
+    }
+
+    /**
+     * Waits for a query and prints its answer in the format of MazeSolver.
+     *
+     * @param answer The pending query.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private static void printAnswer(Future<PathResult> answer) throws InterruptedException {
+        try {
+            PathResult result = answer.get();
+            if (result.isFound()) {
+                int last = result.length() - 1;
+                System.out.println("x:" + result.getX(last) + ", y:" + result.getY(last));
+            } else {
+                System.out.println("There is no solution!");
+            }
+        } catch (ExecutionException e) {
+            System.out.println("Error occurred: " + e.getCause().getMessage());
+        }
+    }
+}
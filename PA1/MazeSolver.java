@@ -1,6 +1,9 @@
-import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * The MazeSolver class provides methods to solve a maze using a wall-follower algorithm.
@@ -9,6 +12,12 @@ import java.io.IOException;
 public class MazeSolver {
     private char[][] mazeGrid;
     private boolean[][] visited;
+    private BitMazeGrid bitGrid; // Packed backend, used instead of mazeGrid and visited when set
+    private SolverListener listener; // Receives the search progress when set
+
+    // Row and column offsets of the moves in visiting order: east, south, west, north.
+    private static final int[] ROW_STEP = {0, 1, 0, -1};
+    private static final int[] COLUMN_STEP = {1, 0, -1, 0};
 
     /**
      * Constructor to start the maze and visited grid.
@@ -21,50 +30,86 @@ public class MazeSolver {
     }
 
     /**
-     * Reads the maze from a text file.
+     * Constructor to solve a maze stored in the packed bit grid backend.
+     * Tried cells are recorded in the grid's visited bits instead of being written as '*'.
+     *
+     * @param grid The packed maze.
+     */
+    public MazeSolver(BitMazeGrid grid) {
+        this.bitGrid = grid;
+    }
+
+    /**
+     * Sets the listener that receives the progress of the searches. Without a listener the searches
+     * skip all instrumentation.
+     *
+     * @param listener The listener, or null to switch instrumentation off.
+     */
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Reads the maze from a text file in a single pass.
+     * Rows may have different lengths; use BitMazeGrid.load for large mazes. The file is decoded in blocks
+     * into a reused char buffer and each row is copied straight into its own array, so no String is
+     * created per line. Lines end at '\n', '\r' or "\r\n", as with BufferedReader.readLine.
      *
      * @param input The name of the file containing the maze.
      * @return A 2D char array representing the maze.
      * @throws IOException If an I/O error throws when reading the file.
      */
     public static char[][] readMazeGrid(String input) throws IOException {
-        BufferedReader reader = new BufferedReader(new FileReader(input));
-        String line;
-        int rows = 0;
-
-        // First pass to count the number of rows in the maze
-        while ((line = reader.readLine()) != null) {
-            rows++;
-        }
-
-        reader.close();
-        reader = new BufferedReader(new FileReader(input));
-
-        char[][] mazeGrid = new char[rows][];
-
-        // Second pass to read the actual maze structure
-        int row = 0;
-        while ((line = reader.readLine()) != null) {
-            mazeGrid[row] = line.toCharArray();
-            row++;
+        List<char[]> rows = new ArrayList<>();
+        try (FileReader reader = new FileReader(input)) {
+            char[] block = new char[1 << 16];
+            char[] line = new char[256];
+            int length = 0;
+            boolean afterCarriageReturn = false;
+            int read;
+            while ((read = reader.read(block)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    char c = block[i];
+                    if (c == '\n' && afterCarriageReturn) {
+                        afterCarriageReturn = false; // Second half of "\r\n"; the row has been added
+                        continue;
+                    }
+                    afterCarriageReturn = c == '\r';
+                    if (c == '\n' || c == '\r') {
+                        rows.add(Arrays.copyOf(line, length));
+                        length = 0;
+                        continue;
+                    }
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, length * 2);
+                    }
+                    line[length++] = c;
+                }
+            }
+            if (length > 0) {
+                rows.add(Arrays.copyOf(line, length)); // Last row without a line break
+            }
         }
-        reader.close();
-
-        return mazeGrid;
+        return rows.toArray(new char[0][]);
     }
 
     /**
      * Prints the maze grid to the console.
+     * Rows are rendered into a buffer and written in large blocks by MazeRenderer.
      *
      * @param mazeGrid A 2D char array representing the maze.
+     * @throws UncheckedIOException If writing to the console fails.
      */
     public static void printMaze(char[][] mazeGrid) {
-        for (int i = 0; i < mazeGrid.length; i++) {
-            for (int j = 0; j < mazeGrid[i].length; j++) {
-                System.out.print(mazeGrid[i][j] + " ");
-            }
-            System.out.println();
+        System.out.flush();
+        MazeRenderer renderer = new MazeRenderer(System.out);
+        try {
+            renderer.render(mazeGrid);
+            renderer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        System.out.flush();
     }
 
     /**
@@ -75,6 +120,9 @@ public class MazeSolver {
      * @return true if the position is within bounds, false otherwise.
      */
     public boolean isInBound(int x, int y) {
+        if (bitGrid != null) {
+            return bitGrid.isInBound(x, y);
+        }
         return (x >= 0 && x < mazeGrid.length && y >= 0 && y < mazeGrid[x].length);
     }
 
@@ -87,6 +135,9 @@ public class MazeSolver {
      * @return true if the move is valid, false otherwise.
      */
     public boolean isValidMove(int x, int y) {
+        if (bitGrid != null) {
+            return bitGrid.isOpen(x, y) && !bitGrid.isVisited(x, y);
+        }
         return (isInBound(x, y) && (mazeGrid[x][y] == '.' || mazeGrid[x][y] == 'X') && !visited[x][y]);
     }
 
@@ -98,6 +149,9 @@ public class MazeSolver {
      * @return true if the position is the exit, false otherwise.
      */
     public boolean isExit(int x, int y) {
+        if (bitGrid != null) {
+            return bitGrid.isExit(x, y);
+        }
         return mazeGrid[x][y] == 'X';
     }
 
@@ -108,6 +162,10 @@ public class MazeSolver {
      * @param y The y-coordinate of the position.
      */
     public void isTried(int x, int y) {
+        if (bitGrid != null) {
+            bitGrid.markVisited(x, y);
+            return;
+        }
         mazeGrid[x][y] = '*';  // Mark the cell as tried
         visited[x][y] = true;  // Mark as visited
     }
@@ -120,6 +178,18 @@ public class MazeSolver {
      * @return true if the exit is reached, false otherwise.
      */
     public boolean reachExit(int x, int y) {
+        return reachExit(x, y, 1);
+    }
+
+    /**
+     * Recursively attempts to find the exit, keeping track of the recursion depth for the listener.
+     *
+     * @param x The x-coordinate of the current position.
+     * @param y The y-coordinate of the current position.
+     * @param depth The number of reachExit calls on the stack, including this one.
+     * @return true if the exit is reached, false otherwise.
+     */
+    private boolean reachExit(int x, int y, int depth) {
         // Base case: If the current position is the exit
         if (isExit(x, y)) {
             System.out.println("x:" + x + ", y:" + y);
@@ -128,17 +198,356 @@ public class MazeSolver {
 
         // Mark the current position as tried
         isTried(x, y);
+        if (listener != null) {
+            listener.cellVisited(x, y);
+            listener.depthReached(depth);
+        }
 
         // Try to move in each of the 4 possible directions (east, south, west, north)
-        if (isValidMove(x, y + 1) && reachExit(x, y + 1)) return true; // Move east (right)
-        if (isValidMove(x + 1, y) && reachExit(x + 1, y)) return true; // Move south (down)
-        if (isValidMove(x, y - 1) && reachExit(x, y - 1)) return true; // Move west (left)
-        if (isValidMove(x - 1, y) && reachExit(x - 1, y)) return true; // Move north (up)
+        if (isValidMove(x, y + 1) && reachExit(x, y + 1, depth + 1)) return true; // Move east (right)
+        if (isValidMove(x + 1, y) && reachExit(x + 1, y, depth + 1)) return true; // Move south (down)
+        if (isValidMove(x, y - 1) && reachExit(x, y - 1, depth + 1)) return true; // Move west (left)
+        if (isValidMove(x - 1, y) && reachExit(x - 1, y, depth + 1)) return true; // Move north (up)
 
         // If no valid moves, return false
+        if (listener != null) {
+            listener.backtracked(x, y);
+        }
         return false;
     }
 
+    /**
+     * Iteratively attempts to find the exit starting from the given coordinates.
+     * Cells are visited in the same order (east, south, west, north) and marked the same way as in
+     * reachExit, but the current path is kept on an explicit int stack on the heap instead of the
+     * call stack, so the thread stack stays constant no matter how large the maze is.
+     *
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @return true if the exit is reached, false otherwise.
+     */
+    public boolean reachExitIterative(int x, int y) {
+        if (isExit(x, y)) {
+            System.out.println("x:" + x + ", y:" + y);
+            return true;
+        }
+        isTried(x, y);
+        if (listener != null) {
+            listener.cellVisited(x, y);
+            listener.depthReached(1);
+        }
+
+        // Each stack entry is a cell packed as (row * columns + column). The direction to resume
+        // from is not stored: it follows from where the popped child lies relative to its parent.
+        int columns = bitGrid != null ? bitGrid.columns() : columnCount(mazeGrid);
+        int[] stack = new int[64];
+        int size = 0;
+        stack[size++] = x * columns + y;
+        int nextDirection = 0;
+
+        while (true) {
+            int cell = stack[size - 1];
+            int cx = cell / columns;
+            int cy = cell % columns;
+
+            boolean advanced = false;
+            for (int d = nextDirection; d < 4; d++) {
+                int nx = cx + ROW_STEP[d];
+                int ny = cy + COLUMN_STEP[d];
+                if (isValidMove(nx, ny)) {
+                    if (isExit(nx, ny)) {
+                        System.out.println("x:" + nx + ", y:" + ny);
+                        return true;
+                    }
+                    isTried(nx, ny);
+                    if (size == stack.length) {
+                        stack = Arrays.copyOf(stack, size + (size >> 1));
+                    }
+                    stack[size++] = nx * columns + ny;
+                    if (listener != null) {
+                        listener.cellVisited(nx, ny);
+                        listener.depthReached(size);
+                    }
+                    nextDirection = 0;
+                    advanced = true;
+                    break;
+                }
+            }
+            if (advanced) {
+                continue;
+            }
+
+            // Dead end: backtrack to the parent and resume after the direction that led here.
+            if (listener != null) {
+                listener.backtracked(cx, cy);
+            }
+            size--;
+            if (size == 0) {
+                return false;
+            }
+            int parent = stack[size - 1];
+            nextDirection = directionBetween(parent / columns, parent % columns, cx, cy) + 1;
+        }
+    }
+
+    /**
+     * Searches breadth-first from the starting position and from every exit at the same time and stops
+     * when the two frontiers meet, which explores roughly the square root of the area a one-sided search
+     * covers on large open mazes. Each step expands a whole level of the smaller frontier, so the path
+     * found is a shortest one. Cells are open by the same rule as isValidMove; the path is marked with
+     * '*' through isTried and the exit is printed like in reachExit.
+     *
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @return true if an exit is reached, false otherwise.
+     */
+    public boolean reachExitBidirectional(int x, int y) {
+        if (isExit(x, y)) {
+            System.out.println("x:" + x + ", y:" + y);
+            return true;
+        }
+        int rows = bitGrid != null ? bitGrid.rows() : mazeGrid.length;
+        int columns = bitGrid != null ? bitGrid.columns() : columnCount(mazeGrid);
+
+        // Parent of every reached cell plus one, so that the zeroed array means "not reached".
+        int[] forward = new int[rows * columns];
+        int[] backward = new int[rows * columns];
+        int[] forwardFrontier = {x * columns + y};
+        int forwardSize = 1;
+        forward[x * columns + y] = x * columns + y + 1;
+        if (listener != null) {
+            listener.cellVisited(x, y);
+        }
+        // The packed loader already recorded the exits; a char maze has to be scanned for them.
+        int[] backwardFrontier = new int[16];
+        int backwardSize = 0;
+        if (bitGrid != null) {
+            backwardFrontier = new int[Math.max(1, bitGrid.exitCount())];
+            for (int i = 0; i < bitGrid.exitCount(); i++) {
+                backwardFrontier[backwardSize++] = bitGrid.exitCell(i);
+            }
+        } else {
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < mazeGrid[i].length; j++) {
+                    if (mazeGrid[i][j] == 'X') {
+                        if (backwardSize == backwardFrontier.length) {
+                            backwardFrontier = Arrays.copyOf(backwardFrontier, backwardSize * 2);
+                        }
+                        backwardFrontier[backwardSize++] = i * columns + j;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < backwardSize; i++) {
+            backward[backwardFrontier[i]] = backwardFrontier[i] + 1;
+        }
+
+        int[] next = new int[16];
+        while (forwardSize > 0 && backwardSize > 0) {
+            boolean expandForward = forwardSize <= backwardSize;
+            int[] frontier = expandForward ? forwardFrontier : backwardFrontier;
+            int size = expandForward ? forwardSize : backwardSize;
+            int[] own = expandForward ? forward : backward;
+            int[] other = expandForward ? backward : forward;
+
+            int nextSize = 0;
+            for (int i = 0; i < size; i++) {
+                int cell = frontier[i];
+                int cx = cell / columns;
+                int cy = cell % columns;
+                for (int d = 0; d < 4; d++) {
+                    int nx = cx + ROW_STEP[d];
+                    int ny = cy + COLUMN_STEP[d];
+                    if (!isOpenCell(nx, ny) || own[nx * columns + ny] != 0) {
+                        continue;
+                    }
+                    int neighbour = nx * columns + ny;
+                    own[neighbour] = cell + 1;
+                    if (listener != null) {
+                        listener.cellVisited(nx, ny);
+                    }
+                    if (other[neighbour] != 0) {
+                        markMeetingPath(forward, backward, neighbour, columns);
+                        return true;
+                    }
+                    if (nextSize == next.length) {
+                        next = Arrays.copyOf(next, nextSize * 2);
+                    }
+                    next[nextSize++] = neighbour;
+                }
+            }
+
+            // The expanded level is no longer needed, so its array holds the level after next.
+            if (expandForward) {
+                forwardFrontier = next;
+                forwardSize = nextSize;
+            } else {
+                backwardFrontier = next;
+                backwardSize = nextSize;
+            }
+            next = frontier;
+            if (listener != null) {
+                listener.depthReached(forwardSize + backwardSize);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a position is inside the maze and is an empty cell or an exit, ignoring the visited state.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     * @return true if the cell can be entered, false otherwise.
+     */
+    private boolean isOpenCell(int x, int y) {
+        if (bitGrid != null) {
+            return bitGrid.isOpen(x, y);
+        }
+        return isInBound(x, y) && (mazeGrid[x][y] == '.' || mazeGrid[x][y] == 'X');
+    }
+
+    /**
+     * Marks the path through the cell where the two searches met and prints the exit it leads to.
+     *
+     * @param forward Parent plus one of the cells reached from the start.
+     * @param backward Parent plus one of the cells reached from the exits.
+     * @param meeting The cell reached by both searches.
+     * @param columns The width used to pack cells.
+     */
+    private void markMeetingPath(int[] forward, int[] backward, int meeting, int columns) {
+        // Only the meeting cell can be an exit on the forward half; exits keep their 'X'.
+        for (int cell = meeting; ; cell = forward[cell] - 1) {
+            if (!isExit(cell / columns, cell % columns)) {
+                isTried(cell / columns, cell % columns);
+            }
+            if (forward[cell] - 1 == cell) {
+                break;
+            }
+        }
+        int cell = meeting;
+        while (backward[cell] - 1 != cell) {
+            cell = backward[cell] - 1;
+            if (!isExit(cell / columns, cell % columns)) {
+                isTried(cell / columns, cell % columns);
+            }
+        }
+        System.out.println("x:" + cell / columns + ", y:" + cell % columns);
+    }
+
+    /**
+     * Returns the width used to pack coordinates into a single int, which is the longest row of the maze.
+     *
+     * @param mazeGrid A 2D char array representing the maze.
+     * @return The number of columns of the widest row.
+     * @throws IllegalStateException If the maze has too many cells to be indexed with an int.
+     */
+    static int columnCount(char[][] mazeGrid) {
+        int columns = 1;
+        for (char[] row : mazeGrid) {
+            columns = Math.max(columns, row.length);
+        }
+        if ((long) mazeGrid.length * columns > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Maze is too large: " + mazeGrid.length + "x" + columns);
+        }
+        return columns;
+    }
+
+    /**
+     * Finds the direction index of the move that leads from one cell to an adjacent one.
+     *
+     * @param fromX The x-coordinate of the source cell.
+     * @param fromY The y-coordinate of the source cell.
+     * @param toX The x-coordinate of the adjacent target cell.
+     * @param toY The y-coordinate of the adjacent target cell.
+     * @return The index into ROW_STEP and COLUMN_STEP of the move.
+     */
+    private static int directionBetween(int fromX, int fromY, int toX, int toY) {
+        for (int d = 0; d < 4; d++) {
+            if (fromX + ROW_STEP[d] == toX && fromY + COLUMN_STEP[d] == toY) {
+                return d;
+            }
+        }
+        throw new IllegalArgumentException("Cells are not adjacent");
+    }
+
+    /**
+     * Solves the maze with a path finder, marks the found path with '*' and prints the exit like reachExit.
+     *
+     * @param finder The search strategy to use.
+     * @param maze A 2D char array representing the maze.
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @param stats The statistics that receive the search counters, or null.
+     * @return true if the exit is reached, false otherwise.
+     */
+    static boolean solveWith(PathFinder finder, char[][] maze, int x, int y, SolverStats stats) {
+        PathResult result = finder.findPath(maze, x, y);
+        if (stats != null) {
+            stats.record(result);
+        }
+        if (!result.isFound()) {
+            return false;
+        }
+        result.markPath(maze);
+        int last = result.length() - 1;
+        System.out.println("x:" + result.getX(last) + ", y:" + result.getY(last));
+        return true;
+    }
+
+    /**
+     * Solves a binary maze file in place through its memory map, without parsing or copying the cells.
+     * The search order is that of reachExit; the exit that was reached is printed.
+     *
+     * @param inputFile The name of the binary maze file.
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @return true if an exit is reached, false otherwise.
+     * @throws IOException If the file cannot be mapped or is not a valid binary maze.
+     */
+    static boolean solveMapped(String inputFile, int x, int y) throws IOException {
+        ReusableMazeSolver solver = new ReusableMazeSolver(BinaryMazeFile.open(inputFile));
+        if (!solver.reachExit(x, y)) {
+            return false;
+        }
+        int last = solver.pathLength() - 1;
+        System.out.println("x:" + solver.pathX(last) + ", y:" + solver.pathY(last));
+        return true;
+    }
+
+    /**
+     * Prints the maze after solving, as selected by the --print option.
+     *
+     * @param grid The solved maze.
+     * @param maze The solved char maze, or null when the packed backend was used.
+     * @param mode "all", "viewport:top,left,height,width" or "overview:factor".
+     * @throws IOException If writing to the console fails.
+     */
+    private static void printSolved(MazeGrid grid, char[][] maze, String mode) throws IOException {
+        if (mode.equals("all") && maze != null) {
+            printMaze(maze);
+            return;
+        }
+        System.out.flush();
+        MazeRenderer renderer = new MazeRenderer(System.out);
+        if (mode.equals("all")) {
+            renderer.render(grid);
+        } else if (mode.startsWith("viewport:")) {
+            String[] bounds = mode.substring("viewport:".length()).split(",");
+            if (bounds.length != 4) {
+                throw new IllegalArgumentException("Expected --print=viewport:top,left,height,width");
+            }
+            renderer.renderViewport(grid, Integer.parseInt(bounds[0]), Integer.parseInt(bounds[1]),
+                    Integer.parseInt(bounds[2]), Integer.parseInt(bounds[3]));
+        } else if (mode.startsWith("overview:")) {
+            renderer.renderOverview(grid, Integer.parseInt(mode.substring("overview:".length())));
+        } else {
+            throw new IllegalArgumentException("Unknown print mode: " + mode);
+        }
+        renderer.flush();
+        System.out.flush();
+    }
+
     /**
      * The main method is the entry point of the program.
      * It validates the command-line arguments and solves the maze using the MazeSolver class.
@@ -146,7 +555,11 @@ public class MazeSolver {
      * @param args The command-line arguments which should include:
      *             - the x-coordinate of the starting position,
      *             - the y-coordinate of the starting position,
-     *             - the name of the maze file.
+     *             - the name of the maze file, in the text format or the binary format of BinaryMazeFile,
+     *             - optionally --solver=dfs (iterative, the default), recursive, bidirectional, bfs, astar or jps,
+     *             - optionally --packed to solve on the bit-packed grid backend,
+     *             - optionally --print[=viewport:top,left,height,width|overview:factor] to print the solved maze,
+     *             - optionally --stats to print search counters and phase timings as JSON at the end.
      * @throws IOException If an error occurs while reading the maze file.
      */
     public static void main(String[] args) throws IOException {
@@ -157,19 +570,107 @@ public class MazeSolver {
                 int initialX = Integer.parseInt(args[0]);
                 int initialY = Integer.parseInt(args[1]);
                 String inputFile = args[2];
+                String solverName = "dfs";
+                boolean packed = false;
+                String print = null;
+                SolverStats stats = null;
+                for (int i = 3; i < args.length; i++) {
+                    if (args[i].startsWith("--solver=")) {
+                        solverName = args[i].substring("--solver=".length());
+                    } else if (args[i].equals("--packed")) {
+                        packed = true;
+                    } else if (args[i].equals("--print") || args[i].startsWith("--print=")) {
+                        print = args[i].equals("--print") ? "all" : args[i].substring("--print=".length());
+                    } else if (args[i].equals("--stats")) {
+                        stats = new SolverStats();
+                    } else {
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                    }
+                }
 
-                // Read the maze from the file and print it.
-                char[][] maze = MazeSolver.readMazeGrid(inputFile);
-                //MazeSolver.printMaze(maze); // print statement for the grid.
+                // A binary maze is solved straight from its memory map, with no parse step.
+                if (BinaryMazeFile.isBinary(inputFile)) {
+                    if (!solverName.equals("dfs") || packed || print != null || stats != null) {
+                        throw new IllegalArgumentException("Binary mazes support only the dfs solver without options");
+                    }
+                    if (!solveMapped(inputFile, initialX, initialY)) {
+                        System.out.println("There is no solution!");
+                    }
+                    return;
+                }
 
-                // Create a new MazeSolver instance to solve the maze.
-                MazeSolver solver = new MazeSolver(maze);
+                // Create a new MazeSolver instance to solve the maze, on the packed backend if requested.
+                // The packed backend is loaded straight from a memory map of the file.
+                char[][] maze = null;
+                BitMazeGrid bitGrid = null;
+                MazeSolver solver;
+                if (stats != null) {
+                    stats.startPhase();
+                }
+                if (packed) {
+                    if (!solverName.equals("dfs") && !solverName.equals("recursive")
+                            && !solverName.equals("bidirectional")) {
+                        throw new IllegalArgumentException("Solver " + solverName + " does not support --packed");
+                    }
+                    bitGrid = BitMazeGrid.load(inputFile);
+                    solver = new MazeSolver(bitGrid);
+                } else {
+                    // Read the maze from the file and print it.
+                    maze = MazeSolver.readMazeGrid(inputFile);
+                    //MazeSolver.printMaze(maze); // print statement for the grid.
+                    solver = new MazeSolver(maze);
+                }
+                if (stats != null) {
+                    stats.endPhase("load");
+                    solver.setListener(stats);
+                    stats.startPhase();
+                }
 
                 // Attempt to solve the maze. If no solution is found, print a message.
-                if (!solver.reachExit(initialX, initialY)) {
+                boolean solved;
+                switch (solverName) {
+                    case "dfs":
+                        solved = solver.reachExitIterative(initialX, initialY);
+                        break;
+                    case "recursive":
+                        solved = solver.reachExit(initialX, initialY);
+                        break;
+                    case "bidirectional":
+                        solved = solver.reachExitBidirectional(initialX, initialY);
+                        break;
+                    case "bfs":
+                        solved = solveWith(new BreadthFirstPathFinder(), maze, initialX, initialY, stats);
+                        break;
+                    case "astar":
+                        solved = solveWith(new AStarPathFinder(), maze, initialX, initialY, stats);
+                        break;
+                    case "jps":
+                        solved = solveWith(new JumpPointPathFinder(), maze, initialX, initialY, stats);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown solver: " + solverName);
+                }
+                if (stats != null) {
+                    stats.endPhase("solve");
+                }
+                if (!solved) {
                     System.out.println("There is no solution!");
                 }
 
+                // Print the solved maze if requested, whole or in part.
+                if (print != null) {
+                    if (stats != null) {
+                        stats.startPhase();
+                    }
+                    printSolved(maze != null ? new CharMazeGrid(maze) : bitGrid, maze, print);
+                    if (stats != null) {
+                        stats.endPhase("print");
+                    }
+                }
+                if (stats != null) {
+                    System.out.println(stats.toJson());
+                }
+
             }
             catch (Exception e) {
                 // Handle any errors that occur during maze solving.
@@ -178,7 +679,7 @@ public class MazeSolver {
         }
         else {
             // Print usage instructions if not enough arguments are provided.
-            System.out.println("Usage: java MazeSolver <x> <y> <maze_file>");
+            System.out.println("Usage: java MazeSolver <x> <y> <maze_file> [--solver=dfs|recursive|bidirectional|bfs|astar|jps] [--packed] [--print[=...]] [--stats]");
         }
     }
 }
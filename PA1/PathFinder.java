@@ -0,0 +1,743 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A strategy that searches a maze for a path from a starting position to an exit ('X').
+ * Implementations never modify the maze; the found path can be marked afterwards with PathResult.markPath.
+ */
+interface PathFinder {
+
+    /**
+     * Returns the name of the strategy as used on the command line.
+     *
+     * @return The strategy name.
+     */
+    String name();
+
+    /**
+     * Searches the maze for a path from the given position to an exit.
+     *
+     * @param mazeGrid A 2D char array representing the maze.
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @return The result of the search, including the path if one was found.
+     */
+    PathResult findPath(char[][] mazeGrid, int x, int y);
+}
+
+/**
+ * The outcome of a path search: the path itself, the number of expanded nodes and the wall time.
+ */
+class PathResult {
+    private final int[] path;       // Cells of the path packed as (x * columns + y), start first
+    private final int columns;      // Width used to pack the cells
+    private final long expandedNodes;
+    private final int maxFrontier;
+    private final long elapsedNanos;
+
+    /**
+     * Constructs a PathResult.
+     *
+     * @param path The packed cells of the path from the start to the exit, or null if there is none.
+     * @param columns The width used to pack the cells.
+     * @param expandedNodes The number of nodes the search expanded.
+     * @param maxFrontier The largest size the frontier (queue, heap or stack) reached.
+     * @param elapsedNanos The wall time of the search in nanoseconds.
+     */
+    public PathResult(int[] path, int columns, long expandedNodes, int maxFrontier, long elapsedNanos) {
+        this.path = path;
+        this.columns = columns;
+        this.expandedNodes = expandedNodes;
+        this.maxFrontier = maxFrontier;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Checks if the search reached an exit.
+     *
+     * @return true if a path was found, false otherwise.
+     */
+    public boolean isFound() {
+        return path != null;
+    }
+
+    /**
+     * Returns the number of cells on the path, including the start and the exit.
+     *
+     * @return The path length in cells, or 0 if no path was found.
+     */
+    public int length() {
+        return path == null ? 0 : path.length;
+    }
+
+    /**
+     * Returns the x-coordinate of a cell on the path.
+     *
+     * @param index The position of the cell on the path, 0 being the start.
+     * @return The x-coordinate of the cell.
+     */
+    public int getX(int index) {
+        return path[index] / columns;
+    }
+
+    /**
+     * Returns the y-coordinate of a cell on the path.
+     *
+     * @param index The position of the cell on the path, 0 being the start.
+     * @return The y-coordinate of the cell.
+     */
+    public int getY(int index) {
+        return path[index] % columns;
+    }
+
+    /**
+     * Returns the number of nodes the search expanded.
+     *
+     * @return The expanded node count.
+     */
+    public long getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    /**
+     * Returns the largest size the frontier reached during the search.
+     *
+     * @return The frontier high-water mark.
+     */
+    public int getMaxFrontier() {
+        return maxFrontier;
+    }
+
+    /**
+     * Returns the wall time of the search.
+     *
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Marks every cell of the path except the exit with '*', the same way reachExit marks tried cells.
+     *
+     * @param mazeGrid The maze the path was found in.
+     */
+    public void markPath(char[][] mazeGrid) {
+        for (int i = 0; i < length() - 1; i++) {
+            mazeGrid[getX(i)][getY(i)] = '*';
+        }
+    }
+
+    /**
+     * Returns a one-line summary of the search.
+     *
+     * @return A string with the path length, expanded nodes and time in milliseconds.
+     */
+    @Override
+    public String toString() {
+        return String.format("path=%d expanded=%d frontier=%d time=%.3fms",
+                length(), expandedNodes, maxFrontier, elapsedNanos / 1e6);
+    }
+}
+
+/**
+ * Base class for path finders that work on the packed (x * columns + y) cell index of a char maze.
+ * It times the search and provides the move rules shared with MazeSolver.
+ */
+abstract class GridPathFinder implements PathFinder {
+
+    // Row and column offsets of the moves in visiting order: east, south, west, north.
+    static final int[] ROW_STEP = {0, 1, 0, -1};
+    static final int[] COLUMN_STEP = {1, 0, -1, 0};
+
+    /**
+     * Times the search and wraps its output in a PathResult.
+     *
+     * @param mazeGrid A 2D char array representing the maze.
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @return The result of the search.
+     */
+    @Override
+    public final PathResult findPath(char[][] mazeGrid, int x, int y) {
+        long start = System.nanoTime();
+        int columns = MazeSolver.columnCount(mazeGrid);
+        Search search = new Search();
+        int[] path = search(mazeGrid, columns, x, y, search);
+        return new PathResult(path, columns, search.expanded, search.maxFrontier, System.nanoTime() - start);
+    }
+
+    /**
+     * Runs the actual search.
+     *
+     * @param mazeGrid A 2D char array representing the maze.
+     * @param columns The width used to pack cells.
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @param search Counters to update while searching.
+     * @return The packed cells of the path from the start to an exit, or null if there is none.
+     */
+    protected abstract int[] search(char[][] mazeGrid, int columns, int x, int y, Search search);
+
+    /**
+     * Checks if a position is inside the maze and is an empty cell or an exit, like MazeSolver.isValidMove.
+     *
+     * @param mazeGrid A 2D char array representing the maze.
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     * @return true if the cell can be entered, false otherwise.
+     */
+    static boolean isOpen(char[][] mazeGrid, int x, int y) {
+        return x >= 0 && x < mazeGrid.length && y >= 0 && y < mazeGrid[x].length
+                && (mazeGrid[x][y] == '.' || mazeGrid[x][y] == 'X');
+    }
+
+    /**
+     * Builds the path from the start to a cell by following parent links.
+     *
+     * @param parent The parent of every reached cell; the start is its own parent.
+     * @param end The last cell of the path.
+     * @return The packed cells from the start to the end.
+     */
+    static int[] tracePath(int[] parent, int end) {
+        int length = 1;
+        for (int cell = end; parent[cell] != cell; cell = parent[cell]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int i = length - 1, cell = end; i >= 0; i--, cell = parent[cell]) {
+            path[i] = cell;
+        }
+        return path;
+    }
+
+    /**
+     * Mutable counters a search updates while running.
+     */
+    static class Search {
+        long expanded;
+        int maxFrontier;
+
+        /**
+         * Records the current frontier size if it is the largest so far.
+         *
+         * @param size The current frontier size.
+         */
+        void frontier(int size) {
+            if (size > maxFrontier) {
+                maxFrontier = size;
+            }
+        }
+    }
+}
+
+/**
+ * Depth-first search with the same east, south, west, north order as MazeSolver.reachExit.
+ * It finds the same exit but keeps its own visited set instead of marking the maze.
+ */
+class DepthFirstPathFinder extends GridPathFinder {
+
+    @Override
+    public String name() {
+        return "dfs";
+    }
+
+    @Override
+    protected int[] search(char[][] mazeGrid, int columns, int x, int y, Search search) {
+        int start = x * columns + y;
+        if (mazeGrid[x][y] == 'X') {
+            return new int[] {start};
+        }
+        boolean[] visited = new boolean[mazeGrid.length * columns];
+        int[] stack = new int[64];
+        int size = 0;
+        stack[size++] = start;
+        visited[start] = true;
+        search.expanded++;
+        int nextDirection = 0;
+
+        while (size > 0) {
+            int cell = stack[size - 1];
+            int cx = cell / columns;
+            int cy = cell % columns;
+            boolean advanced = false;
+            for (int d = nextDirection; d < 4; d++) {
+                int nx = cx + ROW_STEP[d];
+                int ny = cy + COLUMN_STEP[d];
+                if (isOpen(mazeGrid, nx, ny) && !visited[nx * columns + ny]) {
+                    int next = nx * columns + ny;
+                    if (size == stack.length) {
+                        stack = Arrays.copyOf(stack, size + (size >> 1));
+                    }
+                    stack[size++] = next;
+                    search.frontier(size);
+                    if (mazeGrid[nx][ny] == 'X') {
+                        return Arrays.copyOf(stack, size);
+                    }
+                    visited[next] = true;
+                    search.expanded++;
+                    nextDirection = 0;
+                    advanced = true;
+                    break;
+                }
+            }
+            if (!advanced) {
+                size--;
+                if (size > 0) {
+                    int parent = stack[size - 1];
+                    int dx = cx - parent / columns;
+                    int dy = cy - parent % columns;
+                    nextDirection = (dy == 1 ? 0 : dx == 1 ? 1 : dy == -1 ? 2 : 3) + 1;
+                }
+            }
+        }
+        return null;
+    }
+}
+
+/**
+ * Breadth-first search. Every cell is entered once and the first exit reached is a nearest one,
+ * so the path is a shortest path.
+ */
+class BreadthFirstPathFinder extends GridPathFinder {
+
+    @Override
+    public String name() {
+        return "bfs";
+    }
+
+    @Override
+    protected int[] search(char[][] mazeGrid, int columns, int x, int y, Search search) {
+        int start = x * columns + y;
+        if (mazeGrid[x][y] == 'X') {
+            return new int[] {start};
+        }
+        int[] parent = new int[mazeGrid.length * columns];
+        Arrays.fill(parent, -1);
+        int[] queue = new int[64];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        parent[start] = start;
+
+        while (head < tail) {
+            search.frontier(tail - head);
+            int cell = queue[head++];
+            search.expanded++;
+            int cx = cell / columns;
+            int cy = cell % columns;
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + ROW_STEP[d];
+                int ny = cy + COLUMN_STEP[d];
+                if (!isOpen(mazeGrid, nx, ny)) {
+                    continue;
+                }
+                int next = nx * columns + ny;
+                if (parent[next] != -1) {
+                    continue;
+                }
+                parent[next] = cell;
+                if (mazeGrid[nx][ny] == 'X') {
+                    return tracePath(parent, next);
+                }
+                if (tail == queue.length) {
+                    // Compact the consumed head before growing, the queue never holds more than all cells.
+                    queue = Arrays.copyOfRange(queue, head, head + Math.max(64, (tail - head) * 2));
+                    tail -= head;
+                    head = 0;
+                }
+                queue[tail++] = next;
+            }
+        }
+        return null;
+    }
+}
+
+/**
+ * A* search with the Manhattan distance to the nearest known exit as heuristic.
+ * The heuristic never overestimates on a 4-connected grid, so the path is a shortest path,
+ * and on open mazes far fewer cells are expanded than with breadth-first search.
+ */
+class AStarPathFinder extends GridPathFinder {
+
+    @Override
+    public String name() {
+        return "astar";
+    }
+
+    @Override
+    protected int[] search(char[][] mazeGrid, int columns, int x, int y, Search search) {
+        int start = x * columns + y;
+        if (mazeGrid[x][y] == 'X') {
+            return new int[] {start};
+        }
+        int[] exits = findExits(mazeGrid, columns);
+        if (exits.length == 0) {
+            return null;
+        }
+
+        int cells = mazeGrid.length * columns;
+        int[] parent = new int[cells];
+        int[] cost = new int[cells];
+        Arrays.fill(parent, -1);
+        boolean[] closed = new boolean[cells];
+        LongMinHeap open = new LongMinHeap();
+        parent[start] = start;
+        open.add(key(heuristic(x, y, exits, columns), start));
+
+        while (!open.isEmpty()) {
+            search.frontier(open.size());
+            int cell = (int) open.poll();
+            if (closed[cell]) {
+                continue; // Stale entry, the cell was reached again with a lower cost
+            }
+            closed[cell] = true;
+            search.expanded++;
+            int cx = cell / columns;
+            int cy = cell % columns;
+            if (mazeGrid[cx][cy] == 'X') {
+                return tracePath(parent, cell);
+            }
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + ROW_STEP[d];
+                int ny = cy + COLUMN_STEP[d];
+                if (!isOpen(mazeGrid, nx, ny)) {
+                    continue;
+                }
+                int next = nx * columns + ny;
+                int nextCost = cost[cell] + 1;
+                if (closed[next] || (parent[next] != -1 && cost[next] <= nextCost)) {
+                    continue;
+                }
+                parent[next] = cell;
+                cost[next] = nextCost;
+                open.add(key(nextCost + heuristic(nx, ny, exits, columns), next));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Packs a priority and a cell into one heap key, ordered by priority.
+     *
+     * @param priority The estimated total cost through the cell.
+     * @param cell The packed cell.
+     * @return The heap key.
+     */
+    static long key(int priority, int cell) {
+        return ((long) priority << 32) | cell;
+    }
+
+    /**
+     * Collects the packed cells of all exits in the maze.
+     *
+     * @param mazeGrid A 2D char array representing the maze.
+     * @param columns The width used to pack cells.
+     * @return The packed exit cells.
+     */
+    static int[] findExits(char[][] mazeGrid, int columns) {
+        List<Integer> exits = new ArrayList<>();
+        for (int i = 0; i < mazeGrid.length; i++) {
+            for (int j = 0; j < mazeGrid[i].length; j++) {
+                if (mazeGrid[i][j] == 'X') {
+                    exits.add(i * columns + j);
+                }
+            }
+        }
+        int[] packed = new int[exits.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = exits.get(i);
+        }
+        return packed;
+    }
+
+    /**
+     * Returns the Manhattan distance from a position to the nearest exit.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     * @param exits The packed exit cells.
+     * @param columns The width used to pack cells.
+     * @return The smallest Manhattan distance to an exit.
+     */
+    static int heuristic(int x, int y, int[] exits, int columns) {
+        int best = Integer.MAX_VALUE;
+        for (int exit : exits) {
+            int distance = Math.abs(exit / columns - x) + Math.abs(exit % columns - y);
+            if (distance < best) {
+                best = distance;
+            }
+        }
+        return best;
+    }
+}
+
+/**
+ * A binary min-heap of primitive longs, used as the open list of the best-first searches.
+ */
+class LongMinHeap {
+    private long[] heap = new long[64];
+    private int size;
+
+    /**
+     * Checks if the heap has no elements.
+     *
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of elements in the heap.
+     *
+     * @return The heap size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all elements, keeping the allocated storage.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds an element to the heap.
+     *
+     * @param value The element to add.
+     */
+    public void add(long value) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= value) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = value;
+    }
+
+    /**
+     * Removes and returns the smallest element.
+     *
+     * @return The smallest element.
+     */
+    public long poll() {
+        long top = heap[0];
+        long last = heap[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+}
+
+/**
+ * Jump Point Search for 4-connected grids. Runs of open cells are crossed without queueing them: a
+ * horizontal scan only stops at an exit or where a wall beside the run ends (a forced turn), and a
+ * vertical scan stops wherever a horizontal scan from it would stop. Only those jump points enter the
+ * A* open list, so large open rooms cost a few expansions instead of one per cell. The straight runs
+ * between jump points are filled in afterwards, so the result is the same full cell-by-cell path.
+ */
+class JumpPointPathFinder extends GridPathFinder {
+
+    // Arrival direction of the start node, which is expanded in every direction.
+    private static final byte ANY = 4;
+
+    @Override
+    public String name() {
+        return "jps";
+    }
+
+    @Override
+    protected int[] search(char[][] mazeGrid, int columns, int x, int y, Search search) {
+        int start = x * columns + y;
+        if (mazeGrid[x][y] == 'X') {
+            return new int[] {start};
+        }
+        int[] exits = AStarPathFinder.findExits(mazeGrid, columns);
+        if (exits.length == 0) {
+            return null;
+        }
+
+        int cells = mazeGrid.length * columns;
+        int[] parent = new int[cells];
+        int[] cost = new int[cells];
+        byte[] arrival = new byte[cells];
+        boolean[] closed = new boolean[cells];
+        Arrays.fill(parent, -1);
+        LongMinHeap open = new LongMinHeap();
+        parent[start] = start;
+        arrival[start] = ANY;
+        open.add(AStarPathFinder.key(AStarPathFinder.heuristic(x, y, exits, columns), start));
+
+        while (!open.isEmpty()) {
+            search.frontier(open.size());
+            int cell = (int) open.poll();
+            if (closed[cell]) {
+                continue;
+            }
+            closed[cell] = true;
+            search.expanded++;
+            int cx = cell / columns;
+            int cy = cell % columns;
+            if (mazeGrid[cx][cy] == 'X') {
+                return fillPath(parent, cell, columns);
+            }
+            for (int d = 0; d < 4; d++) {
+                if (!isSuccessorDirection(mazeGrid, cx, cy, arrival[cell], d)) {
+                    continue;
+                }
+                int next = jump(mazeGrid, cx, cy, d, columns);
+                if (next < 0 || closed[next]) {
+                    continue;
+                }
+                int nx = next / columns;
+                int ny = next % columns;
+                int nextCost = cost[cell] + Math.abs(nx - cx) + Math.abs(ny - cy);
+                if (parent[next] != -1 && cost[next] <= nextCost) {
+                    continue;
+                }
+                parent[next] = cell;
+                cost[next] = nextCost;
+                arrival[next] = (byte) d;
+                open.add(AStarPathFinder.key(nextCost + AStarPathFinder.heuristic(nx, ny, exits, columns), next));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decides whether a jump point continues in a direction. After a vertical move both horizontal
+     * directions are natural; after a horizontal move only straight on, plus a vertical direction whose
+     * neighbour just came out from behind a wall.
+     *
+     * @param mazeGrid A 2D char array representing the maze.
+     * @param x The x-coordinate of the jump point.
+     * @param y The y-coordinate of the jump point.
+     * @param arrival The direction the jump point was reached in, or ANY for the start.
+     * @param direction The candidate direction.
+     * @return true if the direction must be searched.
+     */
+    private static boolean isSuccessorDirection(char[][] mazeGrid, int x, int y, int arrival, int direction) {
+        if (arrival == ANY || direction == arrival) {
+            return true;
+        }
+        if (direction == (arrival + 2) % 4) {
+            return false; // Never straight back
+        }
+        if (isVertical(arrival)) {
+            return true; // Turning horizontal after a vertical move
+        }
+        int behind = y - COLUMN_STEP[arrival];
+        return isForced(mazeGrid, x + ROW_STEP[direction], y, behind);
+    }
+
+    /**
+     * Scans from a cell in one direction and returns the first jump point.
+     *
+     * @param mazeGrid A 2D char array representing the maze.
+     * @param x The x-coordinate of the cell to scan from.
+     * @param y The y-coordinate of the cell to scan from.
+     * @param direction The direction of the scan.
+     * @param columns The width used to pack cells.
+     * @return The packed jump point, or -1 if the scan runs into a wall first.
+     */
+    private static int jump(char[][] mazeGrid, int x, int y, int direction, int columns) {
+        int dx = ROW_STEP[direction];
+        int dy = COLUMN_STEP[direction];
+        while (true) {
+            x += dx;
+            y += dy;
+            if (!isOpen(mazeGrid, x, y)) {
+                return -1;
+            }
+            if (mazeGrid[x][y] == 'X') {
+                return x * columns + y;
+            }
+            if (isVertical(direction)) {
+                // A vertical run stops where a horizontal scan would find something.
+                if (jump(mazeGrid, x, y, 0, columns) >= 0 || jump(mazeGrid, x, y, 2, columns) >= 0) {
+                    return x * columns + y;
+                }
+            } else if (isForced(mazeGrid, x - 1, y, y - dy) || isForced(mazeGrid, x + 1, y, y - dy)) {
+                return x * columns + y;
+            }
+        }
+    }
+
+    /**
+     * Checks for a forced neighbour of a horizontal run: the cell beside the run is open while the cell
+     * beside the previous step was not, so no path could have turned into it earlier.
+     *
+     * @param mazeGrid A 2D char array representing the maze.
+     * @param sideX The x-coordinate of the row beside the run.
+     * @param y The y-coordinate of the current cell.
+     * @param behindY The y-coordinate of the previous cell.
+     * @return true if the side cell is a forced neighbour.
+     */
+    private static boolean isForced(char[][] mazeGrid, int sideX, int y, int behindY) {
+        return isOpen(mazeGrid, sideX, y) && !isOpen(mazeGrid, sideX, behindY);
+    }
+
+    /**
+     * Checks if a direction moves between rows.
+     *
+     * @param direction The index of the move.
+     * @return true for south and north, false for east and west.
+     */
+    private static boolean isVertical(int direction) {
+        return direction == 1 || direction == 3;
+    }
+
+    /**
+     * Builds the full path through the jump points, including every cell of the straight runs between them.
+     *
+     * @param parent The parent jump point of every reached jump point; the start is its own parent.
+     * @param end The last jump point.
+     * @param columns The width used to pack cells.
+     * @return The packed cells from the start to the end.
+     */
+    private static int[] fillPath(int[] parent, int end, int columns) {
+        int length = 1;
+        for (int cell = end; parent[cell] != cell; cell = parent[cell]) {
+            int from = parent[cell];
+            length += Math.abs(cell / columns - from / columns) + Math.abs(cell % columns - from % columns);
+        }
+        int[] path = new int[length];
+        int i = length - 1;
+        path[i] = end;
+        for (int cell = end; parent[cell] != cell; cell = parent[cell]) {
+            int from = parent[cell];
+            int step = Integer.signum(from / columns - cell / columns) * columns
+                    + Integer.signum(from % columns - cell % columns);
+            for (int walk = cell + step; walk != from; walk += step) {
+                path[--i] = walk;
+            }
+            path[--i] = from;
+        }
+        return path;
+    }
+}
@@ -23,4 +23,52 @@
 
 ### Compilation
 ```bash
-javac MazeSolver.java
+javac *.java
+```
+
+### Running
+```bash
+java MazeSolver <x> <y> <maze_file> [options]
+```
+
+| Option | Description |
+|--------|-------------|
+| `--solver=dfs` | Iterative depth-first search on a heap stack (default). Same visiting order and `*` marking as the recursive search, without the thread stack limit. |
+| `--solver=recursive` | The original recursive depth-first search. Large mazes need a bigger `-Xss`. |
+| `--solver=bidirectional` | Breadth-first search from the start and from the exits at once, stopping where the frontiers meet. Finds a shortest path and marks it with `*`. |
+| `--solver=bfs` | Breadth-first search. Finds a shortest path and marks only that path. |
+| `--solver=astar` | A* search with the Manhattan distance to the nearest exit. Finds a shortest path while expanding fewer cells on open mazes. |
+| `--print` | Print the solved maze after the result. Rows are rendered into a reused buffer and written in large blocks. |
+| `--print=viewport:top,left,height,width` | Print only the given rectangle of the solved maze. |
+| `--print=overview:factor` | Print a downsampled overview where each `factor`x`factor` block becomes one cell, showing `X`, `*`, `.` or `#` in that order of priority. |
+| `--solver=jps` | Jump Point Search for 4-connected grids. Crosses runs of open cells without expanding them, so large open rooms need far fewer expansions. Marks the full shortest path. |
+| `--packed` | Solve on `BitMazeGrid`, which stores walls and visited state as flat bit sets (2 bits per cell instead of about 3 bytes) and exits as a sorted cell array. The file is loaded in one pass through a memory map, and every row must have the same width. Supported by the `dfs`, `recursive` and `bidirectional` solvers. |
+| `--stats` | Print one line of JSON at the end: cells visited, backtracks, the largest recursion depth, stack or frontier, bytes allocated, and the time spent loading, solving and printing. Programs can receive the same events by passing a `SolverListener` to `MazeSolver.setListener`; without one the searches skip the instrumentation. |
+
+The search strategies are `PathFinder` implementations. Each returns a `PathResult` with the path, the number of expanded nodes and the wall time, so strategies can be compared on the same maze.
+
+### Many start positions
+`MazeReachability` labels the connected components of a `BitMazeGrid` once with a parallel union-find over row stripes. After that, `canReachExit(x, y)` answers in constant time whether a search from `(x, y)` reaches an exit.
+
+`ReusableMazeSolver` runs the same depth-first search as `reachExit` any number of times on one maze without modifying it. Tried cells are stamped with a query counter, so a new query does not clear or allocate a visited grid, and the path is recorded separately.
+
+### Binary mazes
+`java BinaryMazeFile maze.txt maze.bmz` converts a text maze to a compact binary file: a header with the size and the exit list, a row-offset index, and 1 bit per cell with every row padded to whole 64-bit words. `MazeSolver` recognises a binary file by its header and solves it straight from a read-only memory map with the `dfs` solver, so there is no parse step and several processes can share the same cached pages. `BinaryMazeFile.open` returns a `MazeGrid` for use with `ReusableMazeSolver`.
+
+### Maze service
+```bash
+java MazeService <maze_file> [--solvers=N] < queries.txt
+```
+`MazeService` loads one maze and answers `x y` queries, one per line, concurrently. Answers are printed in query order in the same format as `MazeSolver`. The maze is shared read-only by all queries. Each query borrows a `ReusableMazeSolver` (the per-query scratch state) from a pool of at most N solvers, so memory stays bounded however many queries are in flight. Queries run on virtual threads when the JVM has them (Java 21 and later) and on a cached thread pool otherwise. Programs can call `solve(x, y)` or `submit(x, y)` directly.
+
+### Repeated queries on huge mazes
+`HierarchicalMazeGraph` preprocesses a `MazeGrid` in the style of HPA*: the maze is split into square clusters, entrances are placed where open cells face each other across a cluster border, and the distances between the entrances and exits of each cluster are measured in parallel. `findPath(x, y)` searches this small abstract graph with A* and refines the result inside the clusters it passes, returning a `PathResult`. Paths can be slightly longer than the shortest path. `save(file)` and `HierarchicalMazeGraph.load(file, grid)` keep the preprocessing across runs.
+
+### Changing mazes
+`IncrementalMazeSolver` keeps a distance-to-exit field for a fixed start in the style of LPA*. After `openCell(x, y)` or `closeCell(x, y)`, `solve()` repairs only the cells whose distance changed and returns the new shortest path.
+
+### Benchmarks
+```bash
+java MazeBenchmark [pipeline] [reachability] [reuse] [incremental] [hierarchical] [service] [--size=N]
+```
+`pipeline` generates perfect mazes, open rooms, spirals and random mazes of two wall densities. On each it measures `readMazeGrid`, `BitMazeGrid.load`, `reachExit`, `reachExitIterative`, the reusable solver, every `PathFinder` and `printMaze`. Each result is the average time per operation and the bytes the measuring thread allocated per operation, after warm-up. The benchmarks run on a thread with a 1 GB stack so the recursive search can be measured too. `incremental` closes and reopens cells on the current path of growing room mazes and compares the repair cost with a fresh breadth-first search. `hierarchical` times building, saving and loading a `HierarchicalMazeGraph` and compares its queries and path lengths with breadth-first search. `service` load-tests `MazeService` with 1 to 64 concurrent clients and reports p50 and p99 latency and throughput.
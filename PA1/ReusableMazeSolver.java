@@ -0,0 +1,181 @@
+import java.util.Arrays;
+
+/**
+ * A depth-first maze solver that can be reused for any number of queries on the same maze.
+ * It searches in the same order as MazeSolver.reachExit, but never writes to the maze: tried cells are
+ * stamped with the number of the current query in an int array, so starting a new query is a counter
+ * increment instead of clearing or reallocating a visited grid. The path to the exit is recorded
+ * separately and can be read through pathX/pathY or marked onto a copy of the maze.
+ */
+class ReusableMazeSolver {
+    private final MazeGrid grid;
+    private final int columns;
+    private final int[] stamp;  // Query number that last tried each cell
+    private int epoch;          // Number of the current query
+    private int[] path = new int[64];
+    private int pathLength;
+    private int tried;          // Cells tried by the current query
+    private int deepest;        // Longest the path got during the current query
+
+    // Row and column offsets of the moves in visiting order: east, south, west, north.
+    private static final int[] ROW_STEP = {0, 1, 0, -1};
+    private static final int[] COLUMN_STEP = {1, 0, -1, 0};
+
+    /**
+     * Constructs a solver for a maze. The maze is only read, so it can be shared with other solvers.
+     *
+     * @param grid The maze to solve.
+     */
+    public ReusableMazeSolver(MazeGrid grid) {
+        this.grid = grid;
+        this.columns = grid.columns();
+        this.stamp = new int[grid.rows() * columns];
+    }
+
+    /**
+     * Attempts to find an exit starting from the given coordinates.
+     *
+     * @param x The x-coordinate of the starting position.
+     * @param y The y-coordinate of the starting position.
+     * @return true if an exit is reached, false otherwise.
+     * @throws IllegalArgumentException If the starting position is outside the maze.
+     */
+    public boolean reachExit(int x, int y) {
+        if (x < 0 || x >= grid.rows() || y < 0 || y >= columns) {
+            throw new IllegalArgumentException("Start (" + x + ", " + y + ") is outside the maze");
+        }
+        nextEpoch();
+        pathLength = 0;
+        tried = 1;
+        deepest = 0;
+        push(x * columns + y);
+        if (grid.isExit(x, y)) {
+            return true;
+        }
+        stamp[x * columns + y] = epoch;
+        int nextDirection = 0;
+
+        while (true) {
+            int cell = path[pathLength - 1];
+            int cx = cell / columns;
+            int cy = cell % columns;
+
+            boolean advanced = false;
+            for (int d = nextDirection; d < 4; d++) {
+                int nx = cx + ROW_STEP[d];
+                int ny = cy + COLUMN_STEP[d];
+                if (grid.isOpen(nx, ny) && stamp[nx * columns + ny] != epoch) {
+                    push(nx * columns + ny);
+                    if (grid.isExit(nx, ny)) {
+                        return true;
+                    }
+                    stamp[nx * columns + ny] = epoch;
+                    tried++;
+                    nextDirection = 0;
+                    advanced = true;
+                    break;
+                }
+            }
+            if (advanced) {
+                continue;
+            }
+
+            pathLength--;
+            if (pathLength == 0) {
+                return false;
+            }
+            int parent = path[pathLength - 1];
+            int dx = cx - parent / columns;
+            int dy = cy - parent % columns;
+            nextDirection = (dy == 1 ? 0 : dx == 1 ? 1 : dy == -1 ? 2 : 3) + 1;
+        }
+    }
+
+    /**
+     * Checks if the last query tried a cell, i.e. if reachExit would have marked it with '*'.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     * @return true if the cell was tried, false otherwise.
+     */
+    public boolean isTried(int x, int y) {
+        return epoch != 0 && stamp[x * columns + y] == epoch;
+    }
+
+    /**
+     * Returns the number of cells on the path found by the last query, including the start and the exit.
+     *
+     * @return The path length, or 0 if the last query found no exit.
+     */
+    public int pathLength() {
+        return pathLength;
+    }
+
+    /**
+     * Returns the x-coordinate of a cell on the last path.
+     *
+     * @param index The position on the path, 0 being the start.
+     * @return The x-coordinate of the cell.
+     */
+    public int pathX(int index) {
+        return path[index] / columns;
+    }
+
+    /**
+     * Returns the y-coordinate of a cell on the last path.
+     *
+     * @param index The position on the path, 0 being the start.
+     * @return The y-coordinate of the cell.
+     */
+    public int pathY(int index) {
+        return path[index] % columns;
+    }
+
+    /**
+     * Returns the outcome of the last query as a PathResult, so it can be compared with the path finders.
+     *
+     * @param elapsedNanos The wall time of the query, measured by the caller.
+     * @return The result, with the number of tried cells as expanded nodes and the longest path as frontier.
+     */
+    public PathResult result(long elapsedNanos) {
+        int[] cells = pathLength == 0 ? null : Arrays.copyOf(path, pathLength);
+        return new PathResult(cells, columns, tried, deepest, elapsedNanos);
+    }
+
+    /**
+     * Marks every cell of the last path except the exit with '*'.
+     *
+     * @param mazeGrid A copy of the maze to draw on.
+     */
+    public void markPath(char[][] mazeGrid) {
+        for (int i = 0; i < pathLength - 1; i++) {
+            mazeGrid[pathX(i)][pathY(i)] = '*';
+        }
+    }
+
+    /**
+     * Starts a new query. Only when the counter wraps around is the stamp array cleared.
+     */
+    private void nextEpoch() {
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * Appends a cell to the current path.
+     *
+     * @param cell The packed cell.
+     */
+    private void push(int cell) {
+        if (pathLength == path.length) {
+            path = Arrays.copyOf(path, pathLength * 2);
+        }
+        path[pathLength++] = cell;
+        if (pathLength > deepest) {
+            deepest = pathLength;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Receives the progress of a MazeSolver search. A solver without a listener skips every callback,
+ * so instrumentation costs nothing unless it is switched on with MazeSolver.setListener.
+ */
+interface SolverListener {
+
+    /**
+     * Called when the search enters a cell for the first time.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     */
+    void cellVisited(int x, int y);
+
+    /**
+     * Called when a depth-first search leaves a dead end and steps back to the previous cell.
+     *
+     * @param x The x-coordinate of the cell that is left.
+     * @param y The y-coordinate of the cell that is left.
+     */
+    void backtracked(int x, int y);
+
+    /**
+     * Called when the recursion depth, the stack of a depth-first search or the frontier of a
+     * breadth-first search grows.
+     *
+     * @param depth The new depth or frontier size.
+     */
+    void depthReached(int depth);
+}
+
+/**
+ * Collects counters and phase timings of one solver run and formats them as JSON.
+ * The search counters come from the SolverListener callbacks or, for the path finders, from a PathResult.
+ */
+class SolverStats implements SolverListener {
+    private final com.sun.management.ThreadMXBean threads = allocationCounter();
+    private long visited;
+    private long backtracks;
+    private int maxDepth;
+    private long loadNanos;
+    private long solveNanos;
+    private long printNanos;
+    private long allocatedBytes;
+    private long phaseStart;
+    private long phaseBytes;
+
+    @Override
+    public void cellVisited(int x, int y) {
+        visited++;
+    }
+
+    @Override
+    public void backtracked(int x, int y) {
+        backtracks++;
+    }
+
+    @Override
+    public void depthReached(int depth) {
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+    }
+
+    /**
+     * Records the counters of a path finder search, which reports them in its result instead of
+     * through callbacks.
+     *
+     * @param result The result of the search.
+     */
+    public void record(PathResult result) {
+        visited += result.getExpandedNodes();
+        depthReached(result.getMaxFrontier());
+    }
+
+    /**
+     * Starts timing a phase on the current thread.
+     */
+    public void startPhase() {
+        phaseBytes = threads == null ? 0 : threads.getCurrentThreadAllocatedBytes();
+        phaseStart = System.nanoTime();
+    }
+
+    /**
+     * Ends the phase started last and adds its time and allocated bytes to the totals.
+     *
+     * @param phase "load", "solve" or "print".
+     */
+    public void endPhase(String phase) {
+        long nanos = System.nanoTime() - phaseStart;
+        if (threads != null) {
+            allocatedBytes += threads.getCurrentThreadAllocatedBytes() - phaseBytes;
+        }
+        switch (phase) {
+            case "load":
+                loadNanos += nanos;
+                break;
+            case "solve":
+                solveNanos += nanos;
+                break;
+            case "print":
+                printNanos += nanos;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown phase: " + phase);
+        }
+    }
+
+    /**
+     * Returns the number of cells the search entered or expanded.
+     *
+     * @return The visited cell count.
+     */
+    public long getVisited() {
+        return visited;
+    }
+
+    /**
+     * Returns the number of steps back out of dead ends.
+     *
+     * @return The backtrack count.
+     */
+    public long getBacktracks() {
+        return backtracks;
+    }
+
+    /**
+     * Returns the largest recursion depth, stack size or frontier size reached.
+     *
+     * @return The high-water mark.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the bytes allocated by the timed phases.
+     *
+     * @return The allocated bytes, or -1 if the JVM cannot count allocations.
+     */
+    public long getAllocatedBytes() {
+        return threads == null ? -1 : allocatedBytes;
+    }
+
+    /**
+     * Formats the counters and timings as a single-line JSON object.
+     *
+     * @return The JSON text.
+     */
+    public String toJson() {
+        return "{\"visited\":" + visited
+                + ",\"backtracks\":" + backtracks
+                + ",\"maxDepth\":" + maxDepth
+                + ",\"allocatedBytes\":" + getAllocatedBytes()
+                + ",\"loadNanos\":" + loadNanos
+                + ",\"solveNanos\":" + solveNanos
+                + ",\"printNanos\":" + printNanos + "}";
+    }
+
+    /**
+     * Returns the HotSpot thread bean that counts allocated bytes, if the JVM provides one.
+     *
+     * @return The bean, or null if allocation cannot be measured.
+     */
+    static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+        }
+        return null;
+    }
+}
@@ -2,6 +2,7 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 
@@ -39,9 +40,15 @@ public class Main {
      *             1. Path to the input file.
      *             2. Spacecraft name.
      *             3. Total available energy.
+     *             With --batch before them, every mission row is evaluated by MissionPlanner
+     *             and a ranked feasibility report is printed.
      */
     public static void main(String[] args) {
         Locale.setDefault(Locale.US);
+        if (args.length > 0 && args[0].equals("--batch")) {
+            MissionPlanner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         if (args.length == 3) {
             String inputFile = args[0];
             String spacecraftName = args[1];
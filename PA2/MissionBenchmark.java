@@ -0,0 +1,301 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Benchmarks for the mission planning code. Run with: java MissionBenchmark [name ...] [--size=N]
+ * Without names every benchmark runs.
+ *
+ * Each measured operation is warmed up for half a second first, and its input is prepared outside the
+ * measured time. Results are the average time per target, mission or query.
+ */
+public class MissionBenchmark {
+    private static final int MIN_ITERATIONS = 5;
+    // Warm-up and measurement each run at least this long, so small inputs still reach compiled code.
+    private static final long MIN_NANOS = 500_000_000L;
+
+    // Number of targets per operation, set with --size=N.
+    private static int size = 1 << 20;
+
+    // Keeps results alive so the JIT cannot drop the measured work.
+    private static double sink;
+
+    /**
+     * An operation to measure. It returns a value derived from its result, which is kept in a sink.
+     */
+    interface Operation {
+
+        /**
+         * Runs the operation once.
+         *
+         * @return A value that depends on the result.
+         */
+        double run();
+    }
+
+    /**
+     * Warms an operation up, then measures it and prints the average time per target.
+     *
+     * @param label The name to print.
+     * @param elements The number of targets one run processes.
+     * @param operation The operation to measure.
+     */
+    static void measure(String label, long elements, Operation operation) {
+        measure(label, elements, "target", operation);
+    }
+
+    /**
+     * Warms an operation up, then measures it and prints the average time per element.
+     *
+     * @param label The name to print.
+     * @param elements The number of elements one run processes.
+     * @param unit The name of an element.
+     * @param operation The operation to measure.
+     */
+    static void measure(String label, long elements, String unit, Operation operation) {
+        long warmupEnd = System.nanoTime() + MIN_NANOS;
+        for (int i = 0; i < MIN_ITERATIONS || System.nanoTime() < warmupEnd; i++) {
+            sink += operation.run();
+        }
+        long nanos = 0;
+        int iterations = 0;
+        while (iterations < MIN_ITERATIONS || nanos < MIN_NANOS) {
+            long start = System.nanoTime();
+            sink += operation.run();
+            nanos += System.nanoTime() - start;
+            iterations++;
+        }
+        System.out.printf("  %-40s %14.3f ns/%s%n", label, (double) nanos / iterations / elements, unit);
+    }
+
+    /**
+     * Compares one Haversine call per target with the bulk distance methods of NavigationSystem.
+     */
+    static void distances() {
+        Random random = new Random(29);
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            latitudes[i] = 180 * random.nextDouble() - 90;
+            longitudes[i] = 360 * random.nextDouble() - 180;
+        }
+        double[] distances = new double[size];
+        NavigationSystem navigation = new NavigationSystem(41.0, 29.0);
+
+        System.out.printf("distances, %d targets%n", size);
+        measure("Haversine per target", size, () -> {
+            for (int i = 0; i < size; i++) {
+                distances[i] = navigation.Haversine(41.0, 29.0, latitudes[i], longitudes[i]);
+            }
+            return distances[size - 1];
+        });
+        measure("NavigationSystem.distances sequential", size, () -> {
+            navigation.distances(latitudes, longitudes, distances, false);
+            return distances[size - 1];
+        });
+        measure("NavigationSystem.distances parallel", size, () -> {
+            navigation.distances(latitudes, longitudes, distances, true);
+            return distances[size - 1];
+        });
+        measure("approximateDistances sequential", size, () -> {
+            navigation.approximateDistances(latitudes, longitudes, distances, false);
+            return distances[size - 1];
+        });
+        measure("approximateDistances parallel", size, () -> {
+            navigation.approximateDistances(latitudes, longitudes, distances, true);
+            return distances[size - 1];
+        });
+    }
+
+    /**
+     * Measures the largest relative error of approximateDistances against Haversine, for random start
+     * points and targets within a given distance, with all latitudes within 70 degrees of the equator.
+     * These are the bounds documented on NavigationSystem.approximateDistances.
+     */
+    static void accuracy() {
+        Random random = new Random(31);
+        double[] ranges = {10, 100, 1000, 5000};
+        int starts = 200;
+        int targets = size / starts + 1;
+        System.out.printf("accuracy, %d start points, %d targets each%n", starts, targets);
+        for (double range : ranges) {
+            double worst = 0;
+            double[] latitudes = new double[targets];
+            double[] longitudes = new double[targets];
+            double[] exact = new double[targets];
+            double[] approximate = new double[targets];
+            for (int s = 0; s < starts; s++) {
+                double startLatitude = 140 * random.nextDouble() - 70;
+                double startLongitude = 360 * random.nextDouble() - 180;
+                NavigationSystem navigation = new NavigationSystem(startLatitude, startLongitude);
+                int count = 0;
+                while (count < targets) {
+                    // Spread targets over the square around the start, then keep those in range.
+                    double angle = range / 6371 * 180 / Math.PI;
+                    double latitude = startLatitude + angle * (2 * random.nextDouble() - 1);
+                    double longitude = startLongitude
+                            + angle / Math.max(0.05, Math.cos(Math.toRadians(startLatitude))) * (2 * random.nextDouble() - 1);
+                    longitude = longitude > 180 ? longitude - 360 : longitude < -180 ? longitude + 360 : longitude;
+                    if (Math.abs(latitude) > 70) {
+                        continue;
+                    }
+                    double distance = navigation.Haversine(startLatitude, startLongitude, latitude, longitude);
+                    if (distance <= range && distance > 0) {
+                        latitudes[count] = latitude;
+                        longitudes[count] = longitude;
+                        count++;
+                    }
+                }
+                navigation.distances(latitudes, longitudes, exact);
+                navigation.approximateDistances(latitudes, longitudes, approximate);
+                for (int i = 0; i < targets; i++) {
+                    worst = Math.max(worst, Math.abs(approximate[i] - exact[i]) / exact[i]);
+                }
+            }
+            System.out.printf("  up to %6.0f km: largest relative error %.5f%%%n", range, 100 * worst);
+        }
+    }
+
+    /**
+     * Compares MissionIndex queries with linear scans over all missions: the k nearest missions and the
+     * missions within 100 and 1000 km of random points, with missions spread evenly over the sphere.
+     */
+    static void index() {
+        Random random = new Random(37);
+        List<Mission> missions = new ArrayList<>(size);
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            latitudes[i] = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+            longitudes[i] = 360 * random.nextDouble() - 180;
+            missions.add(new ExploreMission(latitudes[i], longitudes[i], 24, 20));
+        }
+        int queries = 1024;
+        double[] queryLatitudes = new double[queries];
+        double[] queryLongitudes = new double[queries];
+        for (int q = 0; q < queries; q++) {
+            queryLatitudes[q] = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+            queryLongitudes[q] = 360 * random.nextDouble() - 180;
+        }
+        // A linear scan takes a whole pass over the missions, so it runs fewer queries per measurement.
+        int scans = 8;
+        double[] distances = new double[size];
+        int k = 10;
+
+        System.out.printf("index, %d missions%n", size);
+        measure("MissionIndex build", size, "mission", () -> new MissionIndex(missions).size());
+        MissionIndex index = new MissionIndex(missions);
+        measure("nearest " + k + ", MissionIndex", queries, "query", () -> {
+            double total = 0;
+            for (int q = 0; q < queries; q++) {
+                total += index.nearest(queryLatitudes[q], queryLongitudes[q], k).get(k - 1).getDistance();
+            }
+            return total;
+        });
+        measure("nearest " + k + ", linear scan", scans, "query", () -> {
+            double total = 0;
+            for (int q = 0; q < scans; q++) {
+                NavigationSystem navigation = new NavigationSystem(queryLatitudes[q], queryLongitudes[q]);
+                navigation.distances(latitudes, longitudes, distances, false);
+                total += nearest(distances, k);
+            }
+            return total;
+        });
+        for (double radius : new double[] {100, 1000}) {
+            measure(String.format("within %.0f km, MissionIndex", radius), queries, "query", () -> {
+                double total = 0;
+                for (int q = 0; q < queries; q++) {
+                    total += index.within(queryLatitudes[q], queryLongitudes[q], radius).size();
+                }
+                return total;
+            });
+            measure(String.format("within %.0f km, linear scan", radius), scans, "query", () -> {
+                double total = 0;
+                for (int q = 0; q < scans; q++) {
+                    NavigationSystem navigation = new NavigationSystem(queryLatitudes[q], queryLongitudes[q]);
+                    navigation.distances(latitudes, longitudes, distances, false);
+                    for (int i = 0; i < size; i++) {
+                        if (distances[i] <= radius) {
+                            total++;
+                        }
+                    }
+                }
+                return total;
+            });
+        }
+    }
+
+    /**
+     * Finds the k-th smallest distance with a sorted array of the k smallest seen, as a linear scan does.
+     *
+     * @param distances The distances.
+     * @param k The rank to find.
+     * @return The k-th smallest distance.
+     */
+    private static double nearest(double[] distances, int k) {
+        double[] best = new double[k];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        for (double distance : distances) {
+            if (distance < best[k - 1]) {
+                int i = k - 1;
+                while (i > 0 && best[i - 1] > distance) {
+                    best[i] = best[i - 1];
+                    i--;
+                }
+                best[i] = distance;
+            }
+        }
+        return best[k - 1];
+    }
+
+    /**
+     * Runs the benchmarks named on the command line, or all of them.
+     *
+     * @param names The names of the benchmarks to run.
+     */
+    private static void run(List<String> names) {
+        for (String name : names) {
+            switch (name) {
+                case "distances":
+                    distances();
+                    break;
+                case "accuracy":
+                    accuracy();
+                    break;
+                case "index":
+                    index();
+                    break;
+                default:
+                    System.out.println("Unknown benchmark: " + name);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Parses the command line and runs the benchmarks.
+     *
+     * @param args The names of the benchmarks to run and optionally --size=N.
+     */
+    public static void main(String[] args) {
+        Locale.setDefault(Locale.US);
+        List<String> names = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--size=")) {
+                size = Integer.parseInt(arg.substring("--size=".length()));
+            } else {
+                names.add(arg);
+            }
+        }
+        if (names.isEmpty()) {
+            names.addAll(List.of("distances", "accuracy", "index"));
+        }
+        try {
+            run(names);
+        } catch (Exception e) {
+            System.out.println("Error occurred: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,551 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A mission found by a MissionIndex query, with its great-circle distance from the query point.
+ */
+class MissionDistance {
+
+    private final Mission mission;
+
+    /** Position of the mission in the list the index was built from, starting at 0. */
+    private final int index;
+
+    /** Great-circle distance from the query point in kilometers. */
+    private final double distance;
+
+    /**
+     * Constructs a query result.
+     *
+     * @param mission  The mission.
+     * @param index    Position of the mission in the indexed list.
+     * @param distance Distance from the query point in kilometers.
+     */
+    MissionDistance(Mission mission, int index, double distance) {
+        this.mission = mission;
+        this.index = index;
+        this.distance = distance;
+    }
+
+    /**
+     * Gets the mission.
+     *
+     * @return The mission.
+     */
+    public Mission getMission() {
+        return mission;
+    }
+
+    /**
+     * Gets the position of the mission in the list the index was built from.
+     *
+     * @return The index, starting at 0.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the distance from the query point.
+     *
+     * @return The distance in kilometers.
+     */
+    public double getDistance() {
+        return distance;
+    }
+}
+
+/**
+ * A ball tree over the positions of a fixed list of missions, for nearest-mission and radius queries.
+ * Each position is stored as a point on the unit sphere, where the straight-line (chord) distance grows
+ * with the great-circle distance, so a node can be skipped when the chord from the query point to its
+ * bounding ball is longer than the chord of the search radius. Chords need no trigonometry, and the
+ * points of a leaf lie next to each other in flat arrays. Points that pass the chord test are measured
+ * with NavigationSystem.Haversine, so the results are exactly those of a linear scan with Haversine.
+ * The tree is built once; queries do not modify it and may run on several threads.
+ */
+final class MissionIndex {
+
+    /** Points per leaf. */
+    private static final int LEAF_SIZE = 16;
+
+    /**
+     * Added to chord limits, so that rounding in the chords never drops a point that Haversine puts
+     * inside the radius. It is about 6 millimeters on the surface of the Earth.
+     */
+    private static final double SLACK = 1e-9;
+
+    /** Orders query results nearest first, and missions at the same distance by their list position. */
+    static final Comparator<MissionDistance> NEAREST_FIRST = Comparator.comparingDouble(MissionDistance::getDistance)
+            .thenComparingInt(MissionDistance::getIndex);
+
+    private final Mission[] missions;
+
+    // The points in tree order: the points of every node are a contiguous range.
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] order; // Position of each point in the indexed list
+
+    // The nodes, root first. A leaf has left == -1; an inner node covers its children's ranges.
+    private final double[] centerX;
+    private final double[] centerY;
+    private final double[] centerZ;
+    private final double[] radius; // Largest chord from the center to a point of the node
+    private final int[] start;
+    private final int[] end;
+    private final int[] left;
+    private final int[] right;
+    private int nodes;
+
+    /**
+     * Builds an index over the positions of missions. Later changes to the positions are not seen.
+     *
+     * @param missions The missions.
+     * @throws IllegalArgumentException If a latitude or longitude is not a finite number.
+     */
+    public MissionIndex(List<? extends Mission> missions) {
+        int n = missions.size();
+        this.missions = missions.toArray(new Mission[0]);
+        x = new double[n];
+        y = new double[n];
+        z = new double[n];
+        latitudes = new double[n];
+        longitudes = new double[n];
+        order = new int[n];
+        for (int i = 0; i < n; i++) {
+            double latitude = this.missions[i].getLatitude();
+            double longitude = this.missions[i].getLongitude();
+            if (!Double.isFinite(latitude) || !Double.isFinite(longitude)) {
+                throw new IllegalArgumentException("Invalid position of mission " + i + ": "
+                        + latitude + ", " + longitude);
+            }
+            double cosLatitude = Math.cos(Math.toRadians(latitude));
+            x[i] = cosLatitude * Math.cos(Math.toRadians(longitude));
+            y[i] = cosLatitude * Math.sin(Math.toRadians(longitude));
+            z[i] = Math.sin(Math.toRadians(latitude));
+            latitudes[i] = latitude;
+            longitudes[i] = longitude;
+            order[i] = i;
+        }
+        // Splitting at the median leaves at least LEAF_SIZE / 2 points in every leaf of a larger tree.
+        int capacity = Math.max(1, 2 * ((n + LEAF_SIZE / 2 - 1) / (LEAF_SIZE / 2)));
+        centerX = new double[capacity];
+        centerY = new double[capacity];
+        centerZ = new double[capacity];
+        radius = new double[capacity];
+        start = new int[capacity];
+        end = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        if (n > 0) {
+            build(0, n);
+        }
+    }
+
+    /**
+     * Returns the number of indexed missions.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return missions.length;
+    }
+
+    /**
+     * Finds the missions nearest to a point.
+     *
+     * @param latitude  Latitude of the point.
+     * @param longitude Longitude of the point.
+     * @param k         The number of missions to find.
+     * @return At most k missions, nearest first; missions at the same distance in list order.
+     * @throws IllegalArgumentException If k is not positive.
+     */
+    public List<MissionDistance> nearest(double latitude, double longitude, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Invalid number of missions: " + k);
+        }
+        Query query = new Query(latitude, longitude);
+        Candidates candidates = new Candidates(Math.min(k, missions.length));
+        if (missions.length > 0) {
+            nearest(0, query, candidates);
+        }
+        return candidates.sorted(this);
+    }
+
+    /**
+     * Finds the missions within a great-circle distance of a point.
+     *
+     * @param latitude  Latitude of the point.
+     * @param longitude Longitude of the point.
+     * @param distance  The largest distance in kilometers.
+     * @return The missions at most the distance away, nearest first; missions at the same distance in list order.
+     * @throws IllegalArgumentException If the distance is not a number.
+     */
+    public List<MissionDistance> within(double latitude, double longitude, double distance) {
+        if (Double.isNaN(distance)) {
+            throw new IllegalArgumentException("Invalid distance: " + distance);
+        }
+        List<MissionDistance> result = new ArrayList<>();
+        if (distance < 0 || missions.length == 0) {
+            return result;
+        }
+        Query query = new Query(latitude, longitude);
+        double limit = chord(distance) + SLACK;
+        within(0, query, distance, limit, result);
+        result.sort(NEAREST_FIRST);
+        return result;
+    }
+
+    /**
+     * Converts a great-circle distance to the chord between its end points on the unit sphere.
+     *
+     * @param distance The distance in kilometers.
+     * @return The chord; 2 for half the circumference of the Earth or more.
+     */
+    private static double chord(double distance) {
+        double angle = distance / NavigationSystem.R;
+        return angle >= Math.PI ? 2 : 2 * Math.sin(angle / 2);
+    }
+
+    /**
+     * Builds the subtree of a range of points.
+     *
+     * @param from The first point.
+     * @param to   One past the last point.
+     * @return The node of the subtree.
+     */
+    private int build(int from, int to) {
+        int node = nodes++;
+        start[node] = from;
+        end[node] = to;
+        double sumX = 0;
+        double sumY = 0;
+        double sumZ = 0;
+        for (int i = from; i < to; i++) {
+            sumX += x[i];
+            sumY += y[i];
+            sumZ += z[i];
+        }
+        double cx = sumX / (to - from);
+        double cy = sumY / (to - from);
+        double cz = sumZ / (to - from);
+        double largest = 0;
+        for (int i = from; i < to; i++) {
+            double dx = x[i] - cx;
+            double dy = y[i] - cy;
+            double dz = z[i] - cz;
+            largest = Math.max(largest, dx * dx + dy * dy + dz * dz);
+        }
+        centerX[node] = cx;
+        centerY[node] = cy;
+        centerZ[node] = cz;
+        radius[node] = Math.sqrt(largest);
+        if (to - from <= LEAF_SIZE) {
+            left[node] = -1;
+            right[node] = -1;
+            return node;
+        }
+        // Split at the median of the coordinate with the widest spread.
+        double[] axis = widestAxis(from, to);
+        int middle = (from + to) >>> 1;
+        select(axis, from, to, middle);
+        left[node] = build(from, middle);
+        right[node] = build(middle, to);
+        return node;
+    }
+
+    /**
+     * Finds the coordinate in which a range of points spreads the most.
+     *
+     * @param from The first point.
+     * @param to   One past the last point.
+     * @return The coordinate array x, y or z.
+     */
+    private double[] widestAxis(int from, int to) {
+        double[][] axes = {x, y, z};
+        double[] widest = x;
+        double widestSpread = -1;
+        for (double[] axis : axes) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                min = Math.min(min, axis[i]);
+                max = Math.max(max, axis[i]);
+            }
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widest = axis;
+            }
+        }
+        return widest;
+    }
+
+    /**
+     * Reorders a range of points so that the point at position nth is where it would be if the range
+     * were sorted by a coordinate, with no greater coordinate before it and no smaller one after it.
+     *
+     * @param axis The coordinate array.
+     * @param from The first point.
+     * @param to   One past the last point.
+     * @param nth  The position to fill.
+     */
+    private void select(double[] axis, int from, int to, int nth) {
+        int low = from;
+        int high = to - 1;
+        while (low < high) {
+            double pivot = axis[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (axis[i] < pivot) {
+                    i++;
+                }
+                while (axis[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (nth <= j) {
+                high = j;
+            } else if (nth >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Swaps two points in all point arrays.
+     *
+     * @param i The first point.
+     * @param j The second point.
+     */
+    private void swap(int i, int j) {
+        swap(x, i, j);
+        swap(y, i, j);
+        swap(z, i, j);
+        swap(latitudes, i, j);
+        swap(longitudes, i, j);
+        int o = order[i];
+        order[i] = order[j];
+        order[j] = o;
+    }
+
+    /**
+     * Swaps two elements of an array.
+     *
+     * @param array The array.
+     * @param i     The first element.
+     * @param j     The second element.
+     */
+    private static void swap(double[] array, int i, int j) {
+        double t = array[i];
+        array[i] = array[j];
+        array[j] = t;
+    }
+
+    /**
+     * Returns a lower bound of the chord from the query point to any point of a node.
+     *
+     * @param node  The node.
+     * @param query The query point.
+     * @return The bound; 0 if the query point may lie inside the ball of the node.
+     */
+    private double lowerBound(int node, Query query) {
+        double dx = query.x - centerX[node];
+        double dy = query.y - centerY[node];
+        double dz = query.z - centerZ[node];
+        return Math.max(0, Math.sqrt(dx * dx + dy * dy + dz * dz) - radius[node]);
+    }
+
+    /**
+     * Collects the nearest missions of a subtree, visiting the nearer child first.
+     *
+     * @param node       The root of the subtree.
+     * @param query      The query point.
+     * @param candidates The nearest missions found so far.
+     */
+    private void nearest(int node, Query query, Candidates candidates) {
+        if (left[node] < 0) {
+            for (int i = start[node]; i < end[node]; i++) {
+                double dx = query.x - x[i];
+                double dy = query.y - y[i];
+                double dz = query.z - z[i];
+                if (Math.sqrt(dx * dx + dy * dy + dz * dz) <= candidates.limit()) {
+                    candidates.offer(order[i], query.navigation.Haversine(query.latitude, query.longitude,
+                            latitudes[i], longitudes[i]));
+                }
+            }
+            return;
+        }
+        double leftBound = lowerBound(left[node], query);
+        double rightBound = lowerBound(right[node], query);
+        int near = leftBound <= rightBound ? left[node] : right[node];
+        int far = near == left[node] ? right[node] : left[node];
+        if (Math.min(leftBound, rightBound) <= candidates.limit()) {
+            nearest(near, query, candidates);
+        }
+        if (Math.max(leftBound, rightBound) <= candidates.limit()) {
+            nearest(far, query, candidates);
+        }
+    }
+
+    /**
+     * Collects the missions of a subtree within a distance.
+     *
+     * @param node     The root of the subtree.
+     * @param query    The query point.
+     * @param distance The largest distance in kilometers.
+     * @param limit    The chord of the distance, with slack for rounding.
+     * @param result   Receives the missions found.
+     */
+    private void within(int node, Query query, double distance, double limit, List<MissionDistance> result) {
+        if (lowerBound(node, query) > limit) {
+            return;
+        }
+        if (left[node] >= 0) {
+            within(left[node], query, distance, limit, result);
+            within(right[node], query, distance, limit, result);
+            return;
+        }
+        double limitSquared = limit * limit;
+        for (int i = start[node]; i < end[node]; i++) {
+            double dx = query.x - x[i];
+            double dy = query.y - y[i];
+            double dz = query.z - z[i];
+            if (dx * dx + dy * dy + dz * dz <= limitSquared) {
+                double d = query.navigation.Haversine(query.latitude, query.longitude, latitudes[i], longitudes[i]);
+                if (d <= distance) {
+                    result.add(new MissionDistance(missions[order[i]], order[i], d));
+                }
+            }
+        }
+    }
+
+    /**
+     * A query point, with its unit vector and a navigation system positioned at it for Haversine.
+     */
+    private static class Query {
+        final double latitude;
+        final double longitude;
+        final double x;
+        final double y;
+        final double z;
+        final NavigationSystem navigation;
+
+        Query(double latitude, double longitude) {
+            double cosLatitude = Math.cos(Math.toRadians(latitude));
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.x = cosLatitude * Math.cos(Math.toRadians(longitude));
+            this.y = cosLatitude * Math.sin(Math.toRadians(longitude));
+            this.z = Math.sin(Math.toRadians(latitude));
+            this.navigation = new NavigationSystem(latitude, longitude);
+        }
+    }
+
+    /**
+     * The k nearest missions found so far, in a binary max-heap on distance and then list position, so
+     * the farthest candidate is at the root and is the one replaced by a nearer mission.
+     */
+    private static class Candidates {
+        private final int[] indexes;
+        private final double[] distances;
+        private int size;
+
+        Candidates(int k) {
+            indexes = new int[k];
+            distances = new double[k];
+        }
+
+        /**
+         * Returns the chord within which a point may still be one of the k nearest.
+         *
+         * @return The chord limit, with slack for rounding.
+         */
+        double limit() {
+            return size < distances.length ? Double.POSITIVE_INFINITY : chord(distances[0]) + SLACK;
+        }
+
+        /**
+         * Adds a mission if it is one of the k nearest found so far.
+         *
+         * @param index    Position of the mission in the indexed list.
+         * @param distance Distance of the mission in kilometers.
+         */
+        void offer(int index, double distance) {
+            if (size < distances.length) {
+                int child = size++;
+                while (child > 0) {
+                    int parent = (child - 1) / 2;
+                    if (!after(distance, index, distances[parent], indexes[parent])) {
+                        break;
+                    }
+                    distances[child] = distances[parent];
+                    indexes[child] = indexes[parent];
+                    child = parent;
+                }
+                distances[child] = distance;
+                indexes[child] = index;
+                return;
+            }
+            if (!after(distances[0], indexes[0], distance, index)) {
+                return;
+            }
+            int parent = 0;
+            while (true) {
+                int child = 2 * parent + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && after(distances[child + 1], indexes[child + 1], distances[child], indexes[child])) {
+                    child++;
+                }
+                if (!after(distances[child], indexes[child], distance, index)) {
+                    break;
+                }
+                distances[parent] = distances[child];
+                indexes[parent] = indexes[child];
+                parent = child;
+            }
+            distances[parent] = distance;
+            indexes[parent] = index;
+        }
+
+        /**
+         * Checks if one mission ranks after another: farther, or as far and later in the list.
+         *
+         * @param distance      Distance of the first mission.
+         * @param index         List position of the first mission.
+         * @param otherDistance Distance of the second mission.
+         * @param otherIndex    List position of the second mission.
+         * @return True if the first mission ranks after the second; false otherwise.
+         */
+        private static boolean after(double distance, int index, double otherDistance, int otherIndex) {
+            return distance > otherDistance || distance == otherDistance && index > otherIndex;
+        }
+
+        /**
+         * Returns the candidates nearest first.
+         *
+         * @param missionIndex The index the candidates come from.
+         * @return The missions with their distances.
+         */
+        List<MissionDistance> sorted(MissionIndex missionIndex) {
+            MissionDistance[] result = new MissionDistance[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = new MissionDistance(missionIndex.missions[indexes[i]], indexes[i], distances[i]);
+            }
+            Arrays.sort(result, NEAREST_FIRST);
+            return Arrays.asList(result);
+        }
+    }
+}
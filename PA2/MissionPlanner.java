@@ -0,0 +1,510 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The spacecraft configuration read from the propulSys, supportSys and navSys rows of an input file.
+ * The system classes keep the results of their last calculation in fields, so they must not be shared
+ * between threads; this class holds only the configuration values and creates fresh systems on request.
+ */
+class SpacecraftConfig {
+
+    /** Energy consumption of the propulsion system. */
+    double propulsionEnergy;
+
+    /** Total fuel capacity. */
+    double fuelLevel;
+
+    /** Fuel consumption rate per kilometer. */
+    double fuelRatePerKm;
+
+    /** Energy consumption of the life support system. */
+    double lifeSupportEnergy;
+
+    /** Cabin temperature in degrees Celsius. */
+    double temperature;
+
+    /** Oxygen level percentage. */
+    double oxygenLevel;
+
+    /** Oxygen consumption coefficient. */
+    double oxygenCoeff;
+
+    /** Energy consumption of the navigation system. */
+    double navigationEnergy;
+
+    /** Starting latitude. */
+    double startLatitude;
+
+    /** Starting longitude. */
+    double startLongitude;
+
+    /**
+     * Reads the configuration rows of an input file, as Main does. Missing rows leave their values at 0,
+     * and a repeated row overrides the earlier one.
+     *
+     * @param rows The rows of the input file.
+     * @return The configuration.
+     */
+    static SpacecraftConfig parse(List<String[]> rows) {
+        SpacecraftConfig config = new SpacecraftConfig();
+        for (String[] row : rows) {
+            if (row.length < 2) continue; // Skip incomplete rows
+
+            switch (row[0]) {
+                case "propulSys":
+                    config.propulsionEnergy = Double.parseDouble(row[1]);
+                    config.fuelLevel = Double.parseDouble(row[2]);
+                    config.fuelRatePerKm = Double.parseDouble(row[3]);
+                    break;
+
+                case "supportSys":
+                    config.lifeSupportEnergy = Double.parseDouble(row[1]);
+                    config.temperature = Double.parseDouble(row[2]);
+                    config.oxygenLevel = Double.parseDouble(row[3]);
+                    config.oxygenCoeff = Double.parseDouble(row[4]);
+                    break;
+
+                case "navSys":
+                    config.navigationEnergy = Double.parseDouble(row[1]);
+                    config.startLatitude = Double.parseDouble(row[2]);
+                    config.startLongitude = Double.parseDouble(row[3]);
+                    break;
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Returns the energy all three systems need together.
+     *
+     * @return The total energy consumption.
+     */
+    double energyConsumption() {
+        return propulsionEnergy + lifeSupportEnergy + navigationEnergy;
+    }
+
+    /**
+     * Creates a propulsion system with this configuration.
+     *
+     * @return A new PropulsionSystem.
+     */
+    PropulsionSystem newPropulsionSystem() {
+        return new PropulsionSystem(fuelLevel, fuelRatePerKm);
+    }
+
+    /**
+     * Creates a life support system with this configuration.
+     *
+     * @return A new LifeSupportSystem.
+     */
+    LifeSupportSystem newLifeSupportSystem() {
+        return new LifeSupportSystem(temperature, oxygenLevel, oxygenCoeff);
+    }
+
+    /**
+     * Creates a navigation system with this configuration.
+     *
+     * @return A new NavigationSystem.
+     */
+    NavigationSystem newNavigationSystem() {
+        return new NavigationSystem(startLatitude, startLongitude);
+    }
+}
+
+/**
+ * The feasibility of one mission under a spacecraft configuration.
+ */
+class MissionAssessment {
+
+    /** The mission. */
+    private final Mission mission;
+
+    /** Position of the mission among the mission rows of the input, starting at 1. */
+    private final int number;
+
+    /** Great-circle distance from the start position in kilometers. */
+    private final double distance;
+
+    /** Fuel left after the flight; negative if the fuel is not enough. */
+    private final double fuelMargin;
+
+    /** Oxygen left after the mission; negative if the oxygen is not enough. */
+    private final double oxygenMargin;
+
+    /** Whether there is enough fuel. */
+    private final boolean enoughFuel;
+
+    /** Whether there is enough oxygen. */
+    private final boolean enoughOxygen;
+
+    /** The smaller of the fuel and oxygen margins as a fraction of their capacities, used for ranking. */
+    private final double score;
+
+    /**
+     * Constructs an assessment.
+     *
+     * @param mission      The mission.
+     * @param number       Position of the mission among the mission rows, starting at 1.
+     * @param distance     Distance from the start position in kilometers.
+     * @param fuelMargin   Fuel left after the flight.
+     * @param oxygenMargin Oxygen left after the mission.
+     * @param enoughFuel   Whether there is enough fuel.
+     * @param enoughOxygen Whether there is enough oxygen.
+     * @param score        The smaller relative margin.
+     */
+    MissionAssessment(Mission mission, int number, double distance, double fuelMargin, double oxygenMargin,
+                      boolean enoughFuel, boolean enoughOxygen, double score) {
+        this.mission = mission;
+        this.number = number;
+        this.distance = distance;
+        this.fuelMargin = fuelMargin;
+        this.oxygenMargin = oxygenMargin;
+        this.enoughFuel = enoughFuel;
+        this.enoughOxygen = enoughOxygen;
+        this.score = score;
+    }
+
+    /**
+     * Gets the mission.
+     *
+     * @return The mission.
+     */
+    public Mission getMission() {
+        return mission;
+    }
+
+    /**
+     * Gets the position of the mission among the mission rows of the input.
+     *
+     * @return The mission number, starting at 1.
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Gets the distance from the start position.
+     *
+     * @return The distance in kilometers.
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Gets the fuel left after the flight.
+     *
+     * @return The fuel margin; negative if the fuel is not enough.
+     */
+    public double getFuelMargin() {
+        return fuelMargin;
+    }
+
+    /**
+     * Gets the oxygen left after the mission.
+     *
+     * @return The oxygen margin; negative if the oxygen is not enough.
+     */
+    public double getOxygenMargin() {
+        return oxygenMargin;
+    }
+
+    /**
+     * Checks if the mission can start.
+     *
+     * @return True if there is enough fuel and oxygen; false otherwise.
+     */
+    public boolean isFeasible() {
+        return enoughFuel && enoughOxygen;
+    }
+
+    /**
+     * Gets the smaller of the fuel and oxygen margins as a fraction of the capacity.
+     *
+     * @return The score; higher is safer.
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the outcome in the words of Main, checking fuel before oxygen.
+     *
+     * @return "feasible" or the reason the mission cannot start.
+     */
+    public String getStatus() {
+        if (!enoughFuel) {
+            return "fuel level is not enough";
+        } else if (!enoughOxygen) {
+            return "oxygen level is not enough";
+        }
+        return "feasible";
+    }
+}
+
+/**
+ * Evaluates many missions against one spacecraft configuration. Main evaluates a single exploreMission
+ * row, and with several rows the last one wins; the planner reads every exploreMission, satelliteMission
+ * and supplyMission row and checks each with the same fuel and oxygen calculations as Main. Missions are
+ * split over the common ForkJoin pool, and each task creates its own system objects, since the systems
+ * store intermediate results in their fields. The report ranks feasible missions first, safest first.
+ */
+public class MissionPlanner {
+
+    /** Batches with at least this many missions are evaluated in parallel when the pool has several threads. */
+    static final int PARALLEL_THRESHOLD = 1024;
+
+    /** Missions a parallel task evaluates itself instead of splitting further. */
+    private static final int GRAIN = 256;
+
+    /** Ranks feasible missions first, then by score from safest to tightest, then in input order. */
+    static final Comparator<MissionAssessment> RANKING =
+            Comparator.comparing((MissionAssessment a) -> !a.isFeasible())
+                    .thenComparing(Comparator.comparingDouble(MissionAssessment::getScore).reversed())
+                    .thenComparingInt(MissionAssessment::getNumber);
+
+    /** The spacecraft configuration. */
+    private final SpacecraftConfig config;
+
+    /** Total energy available to the systems. */
+    private final double totalEnergy;
+
+    /**
+     * Constructs a planner.
+     *
+     * @param config      The spacecraft configuration.
+     * @param totalEnergy Total energy available to the systems.
+     */
+    public MissionPlanner(SpacecraftConfig config, double totalEnergy) {
+        this.config = config;
+        this.totalEnergy = totalEnergy;
+    }
+
+    /**
+     * Reads all mission rows of an input file in order.
+     *
+     * @param rows The rows of the input file.
+     * @return The missions.
+     * @throws IllegalArgumentException If a mission row does not have four numbers.
+     */
+    static List<Mission> parseMissions(List<String[]> rows) {
+        List<Mission> missions = new ArrayList<>();
+        for (int line = 0; line < rows.size(); line++) {
+            String[] row = rows.get(line);
+            if (row.length < 2) continue; // Skip incomplete rows
+
+            String identifier = row[0];
+            if (!identifier.equals("exploreMission") && !identifier.equals("satelliteMission")
+                    && !identifier.equals("supplyMission")) {
+                continue;
+            }
+            double latitude;
+            double longitude;
+            double duration;
+            double temp;
+            try {
+                latitude = Double.parseDouble(row[1]);
+                longitude = Double.parseDouble(row[2]);
+                duration = Double.parseDouble(row[3]);
+                temp = Double.parseDouble(row[4]);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid mission on line " + (line + 1) + ": "
+                        + String.join(",", row));
+            }
+            switch (identifier) {
+                case "exploreMission":
+                    missions.add(new ExploreMission(latitude, longitude, duration, temp));
+                    break;
+                case "satelliteMission":
+                    missions.add(new SatelliteMission(latitude, longitude, duration, temp));
+                    break;
+                default:
+                    missions.add(new SupplyMission(latitude, longitude, duration, temp));
+                    break;
+            }
+        }
+        return missions;
+    }
+
+    /**
+     * Checks if the available energy covers all three systems, as Main does before any mission.
+     *
+     * @return True if the systems can be initialized; false otherwise.
+     */
+    public boolean canInitialize() {
+        return totalEnergy >= config.energyConsumption();
+    }
+
+    /**
+     * Evaluates and ranks missions, in parallel if there are many and the common pool has several threads.
+     *
+     * @param missions The missions, numbered from 1 in this order.
+     * @return The assessments in ranking order.
+     */
+    public List<MissionAssessment> plan(List<Mission> missions) {
+        return plan(missions, missions.size() >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1);
+    }
+
+    /**
+     * Evaluates and ranks missions.
+     *
+     * @param missions The missions, numbered from 1 in this order.
+     * @param parallel Whether to split the missions over the common ForkJoin pool.
+     * @return The assessments in ranking order.
+     */
+    public List<MissionAssessment> plan(List<Mission> missions, boolean parallel) {
+        Mission[] input = missions.toArray(new Mission[0]);
+        MissionAssessment[] results = new MissionAssessment[input.length];
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(new AssessTask(this, input, results, 0, input.length));
+            Arrays.parallelSort(results, RANKING);
+        } else {
+            assess(input, results, 0, input.length);
+            Arrays.sort(results, RANKING);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Evaluates a range of missions with one set of system objects.
+     *
+     * @param missions The missions.
+     * @param results  Receives the assessment of each mission at its index.
+     * @param from     The first mission.
+     * @param to       One past the last mission.
+     */
+    private void assess(Mission[] missions, MissionAssessment[] results, int from, int to) {
+        PropulsionSystem propulsion = config.newPropulsionSystem();
+        LifeSupportSystem lifeSup = config.newLifeSupportSystem();
+        NavigationSystem navigate = config.newNavigationSystem();
+        // One bulk call for the range; it returns the same values as Haversine per mission.
+        double[] latitudes = new double[to - from];
+        double[] longitudes = new double[to - from];
+        for (int i = from; i < to; i++) {
+            latitudes[i - from] = missions[i].getLatitude();
+            longitudes[i - from] = missions[i].getLongitude();
+        }
+        double[] distances = new double[to - from];
+        navigate.distances(latitudes, longitudes, distances, false);
+        for (int i = from; i < to; i++) {
+            Mission mission = missions[i];
+            double temp = mission.getMissionTemperature();
+            double duration = mission.getDuration();
+            double expectedOxy = lifeSup.calculateOxy(config.temperature, temp, duration);
+            boolean isEnoughOxy = lifeSup.calculateOxygenConsumption(config.temperature, temp, duration);
+
+            double distance = distances[i - from];
+            double expectedFuel = propulsion.calculateExpectedFuel(distance, config.fuelRatePerKm);
+            boolean isEnoughFuel = propulsion.compareFuel(expectedFuel);
+
+            double fuelMargin = config.fuelLevel - expectedFuel;
+            double oxygenMargin = config.oxygenLevel - expectedOxy;
+            double score = Math.min(fraction(fuelMargin, config.fuelLevel), fraction(oxygenMargin, config.oxygenLevel));
+            results[i] = new MissionAssessment(mission, i + 1, distance, fuelMargin, oxygenMargin,
+                    isEnoughFuel, isEnoughOxy, score);
+        }
+    }
+
+    /**
+     * Returns a margin as a fraction of its capacity.
+     *
+     * @param margin   The amount left.
+     * @param capacity The amount available.
+     * @return The fraction, or 0 or negative infinity for a capacity of 0.
+     */
+    private static double fraction(double margin, double capacity) {
+        if (capacity > 0) {
+            return margin / capacity;
+        }
+        return margin >= 0 ? 0 : Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Prints a ranked feasibility report.
+     *
+     * @param spacecraftName The spacecraft name.
+     * @param assessments    The assessments in ranking order.
+     */
+    static void printReport(String spacecraftName, List<MissionAssessment> assessments) {
+        long feasible = assessments.stream().filter(MissionAssessment::isFeasible).count();
+        StringBuilder report = new StringBuilder();
+        report.append("Mission plan for ").append(spacecraftName).append(": ").append(feasible).append(" of ")
+                .append(assessments.size()).append(" missions feasible\n");
+        report.append(String.format("%5s %6s %-16s %10s %10s %12s %12s %12s  %s%n", "Rank", "No.", "Type",
+                "Latitude", "Longitude", "Distance", "Fuel left", "Oxygen left", "Status"));
+        int rank = 1;
+        for (MissionAssessment a : assessments) {
+            Mission m = a.getMission();
+            report.append(String.format("%5d %6d %-16s %10.4f %10.4f %12.1f %12.1f %12.1f  %s%n", rank++,
+                    a.getNumber(), m.getClass().getSimpleName(), m.getLatitude(), m.getLongitude(),
+                    a.getDistance(), a.getFuelMargin(), a.getOxygenMargin(), a.getStatus()));
+        }
+        System.out.print(report);
+    }
+
+    /**
+     * Reads a configuration and all missions from an input file, evaluates them and prints the ranked report.
+     *
+     * @param args Command-line arguments:
+     *             1. Path to the input file.
+     *             2. Spacecraft name.
+     *             3. Total available energy.
+     */
+    public static void main(String[] args) {
+        Locale.setDefault(Locale.US);
+        if (args.length != 3) {
+            System.out.println("Please enter 3 arguments in the correct order.");
+            return;
+        }
+        try {
+            String spacecraftName = args[1];
+            int totalEnergy = Integer.parseInt(args[2]);
+            List<String[]> data = Main.readTxt(args[0]);
+            MissionPlanner planner = new MissionPlanner(SpacecraftConfig.parse(data), totalEnergy);
+            if (!planner.canInitialize()) {
+                System.out.println("System cannot be initialized.");
+                return;
+            }
+            printReport(spacecraftName, planner.plan(parseMissions(data)));
+        } catch (Exception e) {
+            System.out.println("Error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Evaluates a range of missions, splitting it in halves. Each leaf creates its own system objects.
+     */
+    private static class AssessTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final MissionPlanner planner;
+        private final Mission[] missions;
+        private final MissionAssessment[] results;
+        private final int from;
+        private final int to;
+
+        AssessTask(MissionPlanner planner, Mission[] missions, MissionAssessment[] results, int from, int to) {
+            this.planner = planner;
+            this.missions = missions;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                planner.assess(missions, results, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new AssessTask(planner, missions, results, from, middle),
+                    new AssessTask(planner, missions, results, middle, to));
+        }
+    }
+}
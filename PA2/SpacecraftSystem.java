@@ -1,3 +1,7 @@
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * Abstract class representing a generic spacecraft system.
  */
@@ -86,6 +90,15 @@ class PropulsionSystem extends SpacecraftSystem {
  */
 class NavigationSystem extends SpacecraftSystem {
 
+    /** Radius of the Earth in kilometers, shared by Haversine and the bulk distance methods. */
+    static final int R = 6371;
+
+    /** Targets from which the bulk distance methods split their work over the common ForkJoin pool. */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /** Targets a parallel distance task computes itself instead of splitting further. */
+    private static final int GRAIN = 1 << 13;
+
     /** Current latitude of the spacecraft. */
     private double currentLatitude;
 
@@ -116,7 +129,6 @@ class NavigationSystem extends SpacecraftSystem {
      * @return The distance between the two points in kilometers.
      */
     double Haversine(double currentLatitude, double currentLongitude, double targetLatitude, double targetLongitude) {
-        final int R = 6371; // Radius of the Earth in kilometers
         double latDistance = Math.toRadians(targetLatitude - this.currentLatitude);
         double lonDistance = Math.toRadians(targetLongitude - this.currentLongitude);
 
@@ -127,6 +139,247 @@ class NavigationSystem extends SpacecraftSystem {
         return R * c; // Distance in kilometers
     }
 
+    /**
+     * Calculates the Haversine distances from the current position to many targets. Each distance is
+     * exactly the value Haversine returns for the same target, but the radians and cosine of the start
+     * point are computed once instead of once per target. Large batches are split over the common
+     * ForkJoin pool when it has several threads.
+     *
+     * @param targetLatitudes  Target latitude coordinates.
+     * @param targetLongitudes Target longitude coordinates.
+     * @param distances        Receives the distances in kilometers.
+     * @throws IllegalArgumentException If the arrays differ in length.
+     */
+    public void distances(double[] targetLatitudes, double[] targetLongitudes, double[] distances) {
+        distances(targetLatitudes, targetLongitudes, distances, isLarge(distances.length));
+    }
+
+    /**
+     * Calculates the Haversine distances from the current position to many targets, like
+     * distances(double[], double[], double[]).
+     *
+     * @param targetLatitudes  Target latitude coordinates.
+     * @param targetLongitudes Target longitude coordinates.
+     * @param distances        Receives the distances in kilometers.
+     * @param parallel         Whether to split the targets over the common ForkJoin pool.
+     * @throws IllegalArgumentException If the arrays differ in length.
+     */
+    public void distances(double[] targetLatitudes, double[] targetLongitudes, double[] distances,
+                          boolean parallel) {
+        run(targetLatitudes, targetLongitudes, distances, false, parallel);
+    }
+
+    /**
+     * Approximates the distances from the current position to many targets with the equirectangular
+     * projection: the longitude difference is scaled by the cosine of the mean latitude and the distance
+     * is the straight line in that plane. The cosine is a polynomial, so the loop has no calls and C2
+     * compiles it to SIMD code.
+     * The error grows with the distance and towards the poles. Measured against Haversine by the accuracy
+     * benchmark of MissionBenchmark, with latitudes within 70 degrees, the relative error stays below
+     * 0.001% up to 10 km, 0.01% up to 100 km and 1% up to 1000 km; beyond that, use distances.
+     *
+     * @param targetLatitudes  Target latitude coordinates.
+     * @param targetLongitudes Target longitude coordinates.
+     * @param distances        Receives the approximate distances in kilometers.
+     * @throws IllegalArgumentException If the arrays differ in length.
+     */
+    public void approximateDistances(double[] targetLatitudes, double[] targetLongitudes, double[] distances) {
+        approximateDistances(targetLatitudes, targetLongitudes, distances, isLarge(distances.length));
+    }
+
+    /**
+     * Approximates the distances from the current position to many targets, like
+     * approximateDistances(double[], double[], double[]).
+     *
+     * @param targetLatitudes  Target latitude coordinates.
+     * @param targetLongitudes Target longitude coordinates.
+     * @param distances        Receives the approximate distances in kilometers.
+     * @param parallel         Whether to split the targets over the common ForkJoin pool.
+     * @throws IllegalArgumentException If the arrays differ in length.
+     */
+    public void approximateDistances(double[] targetLatitudes, double[] targetLongitudes, double[] distances,
+                                     boolean parallel) {
+        run(targetLatitudes, targetLongitudes, distances, true, parallel);
+    }
+
+    /**
+     * Checks if a batch is large enough to be worth splitting over several threads.
+     *
+     * @param targets The number of targets.
+     * @return True if the batch should run in parallel; false otherwise.
+     */
+    private static boolean isLarge(int targets) {
+        return targets >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * Checks the arrays of a bulk distance call and computes the distances.
+     *
+     * @param targetLatitudes  Target latitude coordinates.
+     * @param targetLongitudes Target longitude coordinates.
+     * @param distances        Receives the distances in kilometers.
+     * @param approximate      Whether to use the equirectangular approximation.
+     * @param parallel         Whether to split the targets over the common ForkJoin pool.
+     */
+    private void run(double[] targetLatitudes, double[] targetLongitudes, double[] distances,
+                     boolean approximate, boolean parallel) {
+        if (targetLatitudes.length != distances.length || targetLongitudes.length != distances.length) {
+            throw new IllegalArgumentException("Arrays differ in length: " + targetLatitudes.length + ", "
+                    + targetLongitudes.length + " and " + distances.length);
+        }
+        if (parallel && distances.length > GRAIN) {
+            ForkJoinPool.commonPool().invoke(new DistanceTask(this, targetLatitudes, targetLongitudes, distances,
+                    approximate, 0, distances.length));
+        } else {
+            compute(targetLatitudes, targetLongitudes, distances, approximate, 0, distances.length);
+        }
+    }
+
+    /**
+     * Computes the distances of a range of targets.
+     *
+     * @param targetLatitudes  Target latitude coordinates.
+     * @param targetLongitudes Target longitude coordinates.
+     * @param distances        Receives the distances in kilometers.
+     * @param approximate      Whether to use the equirectangular approximation.
+     * @param from             The first target.
+     * @param to               One past the last target.
+     */
+    private void compute(double[] targetLatitudes, double[] targetLongitudes, double[] distances,
+                         boolean approximate, int from, int to) {
+        if (approximate) {
+            equirectangular(targetLatitudes, targetLongitudes, distances, from, to);
+        } else {
+            haversine(targetLatitudes, targetLongitudes, distances, from, to);
+        }
+    }
+
+    /**
+     * Computes Haversine distances for a range of targets with the same operations in the same order
+     * as Haversine, so the results are identical.
+     *
+     * @param targetLatitudes  Target latitude coordinates.
+     * @param targetLongitudes Target longitude coordinates.
+     * @param distances        Receives the distances in kilometers.
+     * @param from             The first target.
+     * @param to               One past the last target.
+     */
+    private void haversine(double[] targetLatitudes, double[] targetLongitudes, double[] distances,
+                           int from, int to) {
+        double startLatitude = currentLatitude;
+        double startLongitude = currentLongitude;
+        double cosStart = Math.cos(Math.toRadians(startLatitude));
+        for (int i = from; i < to; i++) {
+            double targetLatitude = targetLatitudes[i];
+            double latDistance = Math.toRadians(targetLatitude - startLatitude);
+            double lonDistance = Math.toRadians(targetLongitudes[i] - startLongitude);
+            double sinLat = Math.sin(latDistance / 2);
+            double sinLon = Math.sin(lonDistance / 2);
+            double a = sinLat * sinLat + cosStart * Math.cos(Math.toRadians(targetLatitude)) * sinLon * sinLon;
+            distances[i] = R * (2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a)));
+        }
+    }
+
+    /**
+     * Computes equirectangular distances for a range of targets.
+     *
+     * @param targetLatitudes  Target latitude coordinates.
+     * @param targetLongitudes Target longitude coordinates.
+     * @param distances        Receives the distances in kilometers.
+     * @param from             The first target.
+     * @param to               One past the last target.
+     */
+    private void equirectangular(double[] targetLatitudes, double[] targetLongitudes, double[] distances,
+                                 int from, int to) {
+        double startLatitude = Math.toRadians(currentLatitude);
+        double startLongitude = currentLongitude;
+        for (int i = from; i < to; i++) {
+            double latitude = targetLatitudes[i] * (Math.PI / 180);
+            double lonDegrees = targetLongitudes[i] - startLongitude;
+            // Take the shorter way around: bring the difference into [-180, 180].
+            lonDegrees -= 360 * Math.rint(lonDegrees * (1.0 / 360));
+            double x = lonDegrees * (Math.PI / 180) * cos((latitude + startLatitude) / 2);
+            double y = latitude - startLatitude;
+            distances[i] = R * Math.sqrt(x * x + y * y);
+        }
+    }
+
+    /**
+     * Approximates the cosine of a latitude in radians with its Taylor polynomial of degree 12, which is
+     * off by less than 1e-8 between -pi/2 and pi/2, far below the error of the projection itself.
+     *
+     * @param angle The angle in radians, between -pi/2 and pi/2.
+     * @return The approximate cosine.
+     */
+    private static double cos(double angle) {
+        double t = angle * angle;
+        return 1 + t * (-1.0 / 2 + t * (1.0 / 24 + t * (-1.0 / 720 + t * (1.0 / 40320
+                + t * (-1.0 / 3628800 + t * (1.0 / 479001600))))));
+    }
+
+    /**
+     * Computes the distances of a range of targets, splitting the range in halves.
+     */
+    private static class DistanceTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final NavigationSystem navigation;
+        private final double[] targetLatitudes;
+        private final double[] targetLongitudes;
+        private final double[] distances;
+        private final boolean approximate;
+        private final int from;
+        private final int to;
+
+        DistanceTask(NavigationSystem navigation, double[] targetLatitudes, double[] targetLongitudes,
+                     double[] distances, boolean approximate, int from, int to) {
+            this.navigation = navigation;
+            this.targetLatitudes = targetLatitudes;
+            this.targetLongitudes = targetLongitudes;
+            this.distances = distances;
+            this.approximate = approximate;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                navigation.compute(targetLatitudes, targetLongitudes, distances, approximate, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new DistanceTask(navigation, targetLatitudes, targetLongitudes, distances, approximate,
+                            from, middle),
+                    new DistanceTask(navigation, targetLatitudes, targetLongitudes, distances, approximate,
+                            middle, to));
+        }
+    }
+
+    /**
+     * Finds the missions nearest to the current position.
+     *
+     * @param index The index of the missions to search.
+     * @param k     The number of missions to find.
+     * @return At most k missions, nearest first, with their Haversine distances.
+     * @throws IllegalArgumentException If k is not positive.
+     */
+    public List<MissionDistance> nearestMissions(MissionIndex index, int k) {
+        return index.nearest(currentLatitude, currentLongitude, k);
+    }
+
+    /**
+     * Finds the missions within a distance of the current position.
+     *
+     * @param index    The index of the missions to search.
+     * @param distance The largest distance in kilometers.
+     * @return The missions at most the distance away, nearest first, with their Haversine distances.
+     * @throws IllegalArgumentException If the distance is not a number.
+     */
+    public List<MissionDistance> missionsWithin(MissionIndex index, double distance) {
+        return index.within(currentLatitude, currentLongitude, distance);
+    }
+
     /**
      * Displays the navigation system status report.
      *
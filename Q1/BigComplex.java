@@ -0,0 +1,226 @@
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * An immutable complex number with BigDecimal parts and a MathContext that sets the precision and
+ * rounding of its results. Each result part is computed exactly and rounded once to the context, so
+ * add, sub, mul and conjugate are correctly rounded; div rounds the exact numerators divided by the
+ * exact denominator. Binary operations use the context of this number, the left operand.
+ * The argument and the angle of fromPolar go through double trigonometry, since BigDecimal has none,
+ * and so are only as precise as a double.
+ */
+final class BigComplex implements Complex<BigComplex> {
+    private final BigDecimal real;      // The real part of the complex number
+    private final BigDecimal imaginary; // The imaginary part of the complex number
+    private final MathContext context;  // The precision and rounding of results
+
+    /**
+     * Constructs a BigComplex with specified real and imaginary parts. The parts are kept as given;
+     * only results of operations are rounded.
+     *
+     * @param real The real part of the complex number.
+     * @param imaginary The imaginary part of the complex number.
+     * @param context The precision and rounding of results.
+     */
+    public BigComplex(BigDecimal real, BigDecimal imaginary, MathContext context) {
+        this.real = real;
+        this.imaginary = imaginary;
+        this.context = context;
+    }
+
+    /**
+     * Converts an int complex number.
+     *
+     * @param number The complex number.
+     * @param context The precision and rounding of results.
+     * @return The same value with BigDecimal parts.
+     */
+    public static BigComplex of(ComplexNumber number, MathContext context) {
+        return new BigComplex(BigDecimal.valueOf(number.getReal()), BigDecimal.valueOf(number.getImaginary()),
+                context);
+    }
+
+    /**
+     * Constructs a complex number from its polar form.
+     *
+     * @param modulus The distance from zero.
+     * @param argument The angle from the positive real axis, in radians.
+     * @param context The precision and rounding of results.
+     * @return The complex number; its parts carry the precision of a double in the angle.
+     */
+    public static BigComplex fromPolar(BigDecimal modulus, double argument, MathContext context) {
+        return new BigComplex(modulus.multiply(new BigDecimal(Math.cos(argument)), context),
+                modulus.multiply(new BigDecimal(Math.sin(argument)), context), context);
+    }
+
+    /**
+     * Returns the real part of the complex number.
+     *
+     * @return The real part of the complex number.
+     */
+    public BigDecimal getReal() {
+        return real;
+    }
+
+    /**
+     * Returns the imaginary part of the complex number.
+     *
+     * @return The imaginary part of the complex number.
+     */
+    public BigDecimal getImaginary() {
+        return imaginary;
+    }
+
+    /**
+     * Returns the precision and rounding of results.
+     *
+     * @return The context.
+     */
+    public MathContext getContext() {
+        return context;
+    }
+
+    /**
+     * Returns this number with another precision, rounding its parts to it.
+     *
+     * @param context The new precision and rounding.
+     * @return The rounded number.
+     */
+    public BigComplex withContext(MathContext context) {
+        return new BigComplex(real.round(context), imaginary.round(context), context);
+    }
+
+    @Override
+    public BigComplex add(BigComplex other) {
+        return new BigComplex(real.add(other.real, context), imaginary.add(other.imaginary, context), context);
+    }
+
+    @Override
+    public BigComplex sub(BigComplex other) {
+        return new BigComplex(real.subtract(other.real, context), imaginary.subtract(other.imaginary, context),
+                context);
+    }
+
+    @Override
+    public BigComplex mul(BigComplex other) {
+        BigDecimal productReal = real.multiply(other.real).subtract(imaginary.multiply(other.imaginary));
+        BigDecimal productImaginary = real.multiply(other.imaginary).add(imaginary.multiply(other.real));
+        return new BigComplex(productReal.round(context), productImaginary.round(context), context);
+    }
+
+    /**
+     * Calculates the quotient of this number and another.
+     *
+     * @param other The divisor.
+     * @return The quotient.
+     * @throws ArithmeticException If the divisor is zero, or if the context has unlimited precision and
+     *                             a part of the quotient has no finite decimal expansion.
+     */
+    @Override
+    public BigComplex div(BigComplex other) {
+        BigDecimal denominator = other.real.multiply(other.real).add(other.imaginary.multiply(other.imaginary));
+        if (denominator.signum() == 0) {
+            throw new ArithmeticException("Division by zero: " + this + " / " + other);
+        }
+        BigDecimal numeratorReal = real.multiply(other.real).add(imaginary.multiply(other.imaginary));
+        BigDecimal numeratorImaginary = imaginary.multiply(other.real).subtract(real.multiply(other.imaginary));
+        return new BigComplex(numeratorReal.divide(denominator, context),
+                numeratorImaginary.divide(denominator, context), context);
+    }
+
+    @Override
+    public BigComplex conjugate() {
+        return new BigComplex(real.round(context), imaginary.negate(context), context);
+    }
+
+    /**
+     * Raises this number to an integer power by repeated squaring, rounding after each product; a
+     * negative exponent gives the reciprocal of the positive power.
+     *
+     * @param exponent The exponent.
+     * @return This number to the given power.
+     * @throws ArithmeticException If the exponent is negative and this number is zero.
+     */
+    @Override
+    public BigComplex pow(int exponent) {
+        BigComplex result = new BigComplex(BigDecimal.ONE, BigDecimal.ZERO, context);
+        BigComplex square = this;
+        for (long e = Math.abs((long) exponent); e != 0; e >>>= 1) {
+            if ((e & 1) != 0) {
+                result = result.mul(square);
+            }
+            if (e > 1) {
+                square = square.mul(square);
+            }
+        }
+        return exponent < 0 ? new BigComplex(BigDecimal.ONE, BigDecimal.ZERO, context).div(result) : result;
+    }
+
+    /**
+     * Returns the modulus rounded to a context.
+     *
+     * @param context The precision and rounding of the modulus; it must have a limited precision.
+     * @return The modulus.
+     */
+    public BigDecimal modulus(MathContext context) {
+        return real.multiply(real).add(imaginary.multiply(imaginary)).sqrt(context);
+    }
+
+    /**
+     * Returns the modulus as a double. With an unlimited context it is computed at double precision.
+     *
+     * @return The modulus.
+     */
+    @Override
+    public double modulus() {
+        return modulus(context.getPrecision() == 0 ? MathContext.DECIMAL64 : context).doubleValue();
+    }
+
+    /**
+     * Returns the argument as a double. Both parts are first scaled by the same power of ten, which
+     * leaves the angle unchanged, so parts outside the range of a double do not become infinite or zero.
+     *
+     * @return The angle from the positive real axis, in radians.
+     */
+    @Override
+    public double argument() {
+        int exponent = Math.max(magnitude(real), magnitude(imaginary));
+        if (exponent == Integer.MIN_VALUE) {
+            return 0; // Both parts are zero; atan2(0, 0) is 0 as well
+        }
+        return Math.atan2(imaginary.scaleByPowerOfTen(-exponent).doubleValue(),
+                real.scaleByPowerOfTen(-exponent).doubleValue());
+    }
+
+    /**
+     * Returns the decimal exponent of a number: the power of ten of its leading digit, plus one.
+     *
+     * @param value The number.
+     * @return The exponent, or Integer.MIN_VALUE for zero.
+     */
+    private static int magnitude(BigDecimal value) {
+        return value.signum() == 0 ? Integer.MIN_VALUE : value.precision() - value.scale();
+    }
+
+    /**
+     * Checks if this number and another have equal values, ignoring the scale of the parts, so 1.0
+     * equals 1.00.
+     *
+     * @param other The number to compare with.
+     * @return true if both parts are equal, false otherwise.
+     */
+    @Override
+    public boolean equal(BigComplex other) {
+        return real.compareTo(other.real) == 0 && imaginary.compareTo(other.imaginary) == 0;
+    }
+
+    /**
+     * Returns a string representation of the complex number in the format "a+bi" or "a-bi".
+     *
+     * @return A string representation of the complex number.
+     */
+    @Override
+    public String toString() {
+        return real.toPlainString() + (imaginary.signum() >= 0 ? "+" : "") + imaginary.toPlainString() + "i";
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * A complex number type with the arithmetic shared by ComplexNumber (int parts), DoubleComplex (double
+ * parts) and BigComplex (BigDecimal parts). Operations never change their operands; they return a new
+ * number of the same type. The modulus and the argument together are the polar form of a number;
+ * DoubleComplex.fromPolar and BigComplex.fromPolar convert back.
+ *
+ * @param <T> The implementing type.
+ */
+interface Complex<T extends Complex<T>> {
+
+    /**
+     * Calculates the sum of this number and another.
+     *
+     * @param other The second operand.
+     * @return The sum.
+     */
+    T add(T other);
+
+    /**
+     * Calculates the difference of this number and another.
+     *
+     * @param other The second operand.
+     * @return The difference.
+     */
+    T sub(T other);
+
+    /**
+     * Calculates the product of this number and another.
+     *
+     * @param other The second operand.
+     * @return The product.
+     */
+    T mul(T other);
+
+    /**
+     * Calculates the quotient of this number and another.
+     *
+     * @param other The divisor.
+     * @return The quotient.
+     * @throws ArithmeticException If the divisor is zero and the type has no value for the result.
+     */
+    T div(T other);
+
+    /**
+     * Returns the complex conjugate, the number with the sign of the imaginary part flipped.
+     *
+     * @return The conjugate.
+     */
+    T conjugate();
+
+    /**
+     * Raises this number to an integer power by repeated squaring.
+     *
+     * @param exponent The exponent.
+     * @return This number to the given power.
+     * @throws ArithmeticException If the exponent is negative and the type cannot represent the result.
+     */
+    T pow(int exponent);
+
+    /**
+     * Returns the modulus, the distance from zero.
+     *
+     * @return The modulus.
+     */
+    double modulus();
+
+    /**
+     * Returns the argument, the angle from the positive real axis, in radians between -pi and pi.
+     *
+     * @return The argument.
+     */
+    double argument();
+
+    /**
+     * Checks if this number and another have equal parts.
+     *
+     * @param other The number to compare with.
+     * @return true if both parts are equal, false otherwise.
+     */
+    boolean equal(T other);
+}
@@ -0,0 +1,205 @@
+/**
+ * Performs complex arithmetic on whole arrays of complex numbers stored as structure of arrays:
+ * the real parts in one array and the imaginary parts in another. Each operation is a single counted
+ * loop over primitive arrays without calls or branches, which HotSpot's C2 compiler turns into SIMD code.
+ * The int operations wrap on overflow exactly like ComplexNumberCalculator. The output arrays may be
+ * the arrays of the first or second operand, since each element is read before it is written.
+ */
+class ComplexBatch {
+
+    /**
+     * Adds pairs of complex numbers element by element.
+     *
+     * @param real1 The real parts of the first operands.
+     * @param imaginary1 The imaginary parts of the first operands.
+     * @param real2 The real parts of the second operands.
+     * @param imaginary2 The imaginary parts of the second operands.
+     * @param realOut Receives the real parts of the sums.
+     * @param imaginaryOut Receives the imaginary parts of the sums.
+     * @throws IllegalArgumentException If the arrays differ in length.
+     */
+    public static void add(int[] real1, int[] imaginary1, int[] real2, int[] imaginary2,
+                           int[] realOut, int[] imaginaryOut) {
+        int n = checkLengths(real1.length, imaginary1.length, real2.length, imaginary2.length,
+                realOut.length, imaginaryOut.length);
+        for (int i = 0; i < n; i++) {
+            realOut[i] = real1[i] + real2[i];
+        }
+        for (int i = 0; i < n; i++) {
+            imaginaryOut[i] = imaginary1[i] + imaginary2[i];
+        }
+    }
+
+    /**
+     * Subtracts pairs of complex numbers element by element.
+     *
+     * @param real1 The real parts of the first operands.
+     * @param imaginary1 The imaginary parts of the first operands.
+     * @param real2 The real parts of the second operands.
+     * @param imaginary2 The imaginary parts of the second operands.
+     * @param realOut Receives the real parts of the differences.
+     * @param imaginaryOut Receives the imaginary parts of the differences.
+     * @throws IllegalArgumentException If the arrays differ in length.
+     */
+    public static void sub(int[] real1, int[] imaginary1, int[] real2, int[] imaginary2,
+                           int[] realOut, int[] imaginaryOut) {
+        int n = checkLengths(real1.length, imaginary1.length, real2.length, imaginary2.length,
+                realOut.length, imaginaryOut.length);
+        for (int i = 0; i < n; i++) {
+            realOut[i] = real1[i] - real2[i];
+        }
+        for (int i = 0; i < n; i++) {
+            imaginaryOut[i] = imaginary1[i] - imaginary2[i];
+        }
+    }
+
+    /**
+     * Multiplies pairs of complex numbers element by element.
+     *
+     * @param real1 The real parts of the first operands.
+     * @param imaginary1 The imaginary parts of the first operands.
+     * @param real2 The real parts of the second operands.
+     * @param imaginary2 The imaginary parts of the second operands.
+     * @param realOut Receives the real parts of the products.
+     * @param imaginaryOut Receives the imaginary parts of the products.
+     * @throws IllegalArgumentException If the arrays differ in length.
+     */
+    public static void mul(int[] real1, int[] imaginary1, int[] real2, int[] imaginary2,
+                           int[] realOut, int[] imaginaryOut) {
+        int n = checkLengths(real1.length, imaginary1.length, real2.length, imaginary2.length,
+                realOut.length, imaginaryOut.length);
+        for (int i = 0; i < n; i++) {
+            int a = real1[i];
+            int b = imaginary1[i];
+            int c = real2[i];
+            int d = imaginary2[i];
+            realOut[i] = a * c - b * d;
+            imaginaryOut[i] = a * d + b * c;
+        }
+    }
+
+    /**
+     * Compares pairs of complex numbers element by element.
+     *
+     * @param real1 The real parts of the first operands.
+     * @param imaginary1 The imaginary parts of the first operands.
+     * @param real2 The real parts of the second operands.
+     * @param imaginary2 The imaginary parts of the second operands.
+     * @param out Receives true where both parts are equal.
+     * @throws IllegalArgumentException If the arrays differ in length.
+     */
+    public static void equal(int[] real1, int[] imaginary1, int[] real2, int[] imaginary2, boolean[] out) {
+        int n = checkLengths(real1.length, imaginary1.length, real2.length, imaginary2.length,
+                out.length, out.length);
+        for (int i = 0; i < n; i++) {
+            out[i] = ((real1[i] ^ real2[i]) | (imaginary1[i] ^ imaginary2[i])) == 0;
+        }
+    }
+
+    /**
+     * Adds pairs of complex numbers element by element.
+     *
+     * @param real1 The real parts of the first operands.
+     * @param imaginary1 The imaginary parts of the first operands.
+     * @param real2 The real parts of the second operands.
+     * @param imaginary2 The imaginary parts of the second operands.
+     * @param realOut Receives the real parts of the sums.
+     * @param imaginaryOut Receives the imaginary parts of the sums.
+     * @throws IllegalArgumentException If the arrays differ in length.
+     */
+    public static void add(double[] real1, double[] imaginary1, double[] real2, double[] imaginary2,
+                           double[] realOut, double[] imaginaryOut) {
+        int n = checkLengths(real1.length, imaginary1.length, real2.length, imaginary2.length,
+                realOut.length, imaginaryOut.length);
+        for (int i = 0; i < n; i++) {
+            realOut[i] = real1[i] + real2[i];
+        }
+        for (int i = 0; i < n; i++) {
+            imaginaryOut[i] = imaginary1[i] + imaginary2[i];
+        }
+    }
+
+    /**
+     * Subtracts pairs of complex numbers element by element.
+     *
+     * @param real1 The real parts of the first operands.
+     * @param imaginary1 The imaginary parts of the first operands.
+     * @param real2 The real parts of the second operands.
+     * @param imaginary2 The imaginary parts of the second operands.
+     * @param realOut Receives the real parts of the differences.
+     * @param imaginaryOut Receives the imaginary parts of the differences.
+     * @throws IllegalArgumentException If the arrays differ in length.
+     */
+    public static void sub(double[] real1, double[] imaginary1, double[] real2, double[] imaginary2,
+                           double[] realOut, double[] imaginaryOut) {
+        int n = checkLengths(real1.length, imaginary1.length, real2.length, imaginary2.length,
+                realOut.length, imaginaryOut.length);
+        for (int i = 0; i < n; i++) {
+            realOut[i] = real1[i] - real2[i];
+        }
+        for (int i = 0; i < n; i++) {
+            imaginaryOut[i] = imaginary1[i] - imaginary2[i];
+        }
+    }
+
+    /**
+     * Multiplies pairs of complex numbers element by element.
+     *
+     * @param real1 The real parts of the first operands.
+     * @param imaginary1 The imaginary parts of the first operands.
+     * @param real2 The real parts of the second operands.
+     * @param imaginary2 The imaginary parts of the second operands.
+     * @param realOut Receives the real parts of the products.
+     * @param imaginaryOut Receives the imaginary parts of the products.
+     * @throws IllegalArgumentException If the arrays differ in length.
+     */
+    public static void mul(double[] real1, double[] imaginary1, double[] real2, double[] imaginary2,
+                           double[] realOut, double[] imaginaryOut) {
+        int n = checkLengths(real1.length, imaginary1.length, real2.length, imaginary2.length,
+                realOut.length, imaginaryOut.length);
+        for (int i = 0; i < n; i++) {
+            double a = real1[i];
+            double b = imaginary1[i];
+            double c = real2[i];
+            double d = imaginary2[i];
+            realOut[i] = a * c - b * d;
+            imaginaryOut[i] = a * d + b * c;
+        }
+    }
+
+    /**
+     * Compares pairs of complex numbers element by element with ==, so NaN parts are never equal.
+     *
+     * @param real1 The real parts of the first operands.
+     * @param imaginary1 The imaginary parts of the first operands.
+     * @param real2 The real parts of the second operands.
+     * @param imaginary2 The imaginary parts of the second operands.
+     * @param out Receives true where both parts are equal.
+     * @throws IllegalArgumentException If the arrays differ in length.
+     */
+    public static void equal(double[] real1, double[] imaginary1, double[] real2, double[] imaginary2,
+                             boolean[] out) {
+        int n = checkLengths(real1.length, imaginary1.length, real2.length, imaginary2.length,
+                out.length, out.length);
+        for (int i = 0; i < n; i++) {
+            out[i] = real1[i] == real2[i] & imaginary1[i] == imaginary2[i];
+        }
+    }
+
+    /**
+     * Checks that all arrays of an operation have the same length. Checking once up front also lets
+     * the JIT drop the bounds checks inside the loops.
+     *
+     * @param lengths The lengths of the arrays.
+     * @return The common length.
+     * @throws IllegalArgumentException If the lengths differ.
+     */
+    private static int checkLengths(int... lengths) {
+        for (int length : lengths) {
+            if (length != lengths[0]) {
+                throw new IllegalArgumentException("Arrays differ in length: " + length + " and " + lengths[0]);
+            }
+        }
+        return lengths[0];
+    }
+}
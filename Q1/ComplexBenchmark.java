@@ -0,0 +1,620 @@
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmarks for the complex number operations. Run with: java ComplexBenchmark [name ...] [--size=N]
+ * Without names every benchmark runs.
+ *
+ * Each measured operation is warmed up for half a second first, and its input is prepared outside the
+ * measured time.
+ * Results are the average time per element and the bytes allocated per operation by the measuring
+ * thread, which is what JMH reports as gc.alloc.rate.norm with -prof gc.
+ */
+public class ComplexBenchmark {
+    private static final int MIN_ITERATIONS = 5;
+    // Warm-up and measurement each run at least this long, so small inputs still reach compiled code.
+    private static final long MIN_NANOS = 500_000_000L;
+
+    // Number of complex numbers per operation, set with --size=N.
+    private static int size = 1 << 20;
+
+    // Keeps results alive so the JIT cannot drop the measured work.
+    private static long sink;
+
+    /**
+     * An operation to measure. It returns a value derived from its result, which is kept in a sink.
+     */
+    interface Operation {
+
+        /**
+         * Runs the operation once.
+         *
+         * @return A value that depends on the result.
+         * @throws Exception If the operation fails.
+         */
+        long run() throws Exception;
+    }
+
+    /**
+     * Warms an operation up, then measures it and prints the average time per element and the
+     * bytes allocated per operation.
+     *
+     * @param label The name to print.
+     * @param elements The number of elements one run processes.
+     * @param operation The operation to measure.
+     * @return The average time of one run in nanoseconds.
+     * @throws Exception If the operation fails.
+     */
+    static double measure(String label, long elements, Operation operation) throws Exception {
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        long warmupEnd = System.nanoTime() + MIN_NANOS;
+        for (int i = 0; i < MIN_ITERATIONS || System.nanoTime() < warmupEnd; i++) {
+            sink += operation.run();
+        }
+        long nanos = 0;
+        long allocated = 0;
+        int iterations = 0;
+        while (iterations < MIN_ITERATIONS || nanos < MIN_NANOS) {
+            long allocatedBefore = threads == null ? 0 : threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            sink += operation.run();
+            nanos += System.nanoTime() - start;
+            allocated += threads == null ? 0 : threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            iterations++;
+        }
+        System.out.printf("  %-36s %10.3f ns/element %,16d B/op%n", label,
+                (double) nanos / iterations / elements, allocated / iterations);
+        return (double) nanos / iterations;
+    }
+
+    /**
+     * Measures an operation like measure and also prints its rate in billions of floating-point
+     * operations per second.
+     *
+     * @param label The name to print.
+     * @param elements The number of elements one run processes.
+     * @param flops The number of floating-point operations one run does.
+     * @param operation The operation to measure.
+     * @throws Exception If the operation fails.
+     */
+    static void measureFlops(String label, long elements, long flops, Operation operation) throws Exception {
+        double nanos = measure(label, elements, operation);
+        System.out.printf("  %-36s %10.3f GFLOP/s%n", "", flops / nanos);
+    }
+
+    /**
+     * Returns the HotSpot thread bean that counts allocated bytes, if the JVM provides one.
+     *
+     * @return The bean, or null if allocation cannot be measured.
+     */
+    static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns random ints spread over the whole int range, so that products overflow like real data may.
+     *
+     * @param random The random generator.
+     * @param count The number of values.
+     * @return The values.
+     */
+    static int[] randomInts(Random random, int count) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextInt();
+        }
+        return values;
+    }
+
+    /**
+     * Returns random doubles between -1 and 1.
+     *
+     * @param random The random generator.
+     * @param count The number of values.
+     * @return The values.
+     */
+    static double[] randomDoubles(Random random, int count) {
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = 2 * random.nextDouble() - 1;
+        }
+        return values;
+    }
+
+    /**
+     * Compares a loop creating a ComplexNumberCalculator per pair with the ComplexBatch array operations.
+     *
+     * @throws Exception If an operation fails.
+     */
+    static void batch() throws Exception {
+        Random random = new Random(42);
+        int[] real1 = randomInts(random, size);
+        int[] imaginary1 = randomInts(random, size);
+        int[] real2 = randomInts(random, size);
+        int[] imaginary2 = randomInts(random, size);
+        int[] realOut = new int[size];
+        int[] imaginaryOut = new int[size];
+        boolean[] equalOut = new boolean[size];
+        double[] doubleReal1 = randomDoubles(random, size);
+        double[] doubleImaginary1 = randomDoubles(random, size);
+        double[] doubleReal2 = randomDoubles(random, size);
+        double[] doubleImaginary2 = randomDoubles(random, size);
+        double[] doubleRealOut = new double[size];
+        double[] doubleImaginaryOut = new double[size];
+
+        System.out.printf("batch, %d pairs%n", size);
+        for (String operation : new String[] {"add", "sub", "mul"}) {
+            measure("ComplexNumberCalculator " + operation, size, () -> {
+                for (int i = 0; i < size; i++) {
+                    ComplexNumberCalculator calculator =
+                            new ComplexNumberCalculator(real1[i], imaginary1[i], real2[i], imaginary2[i]);
+                    ComplexNumber result = operation.equals("add") ? calculator.sum()
+                            : operation.equals("sub") ? calculator.sub() : calculator.mul();
+                    realOut[i] = result.getReal();
+                    imaginaryOut[i] = result.getImaginary();
+                }
+                return realOut[size - 1];
+            });
+        }
+        measure("ComplexNumberCalculator equal", size, () -> {
+            for (int i = 0; i < size; i++) {
+                equalOut[i] = new ComplexNumberCalculator(real1[i], imaginary1[i], real2[i], imaginary2[i]).equal();
+            }
+            return equalOut[size - 1] ? 1 : 0;
+        });
+        measure("ComplexBatch int add", size, () -> {
+            ComplexBatch.add(real1, imaginary1, real2, imaginary2, realOut, imaginaryOut);
+            return realOut[size - 1];
+        });
+        measure("ComplexBatch int sub", size, () -> {
+            ComplexBatch.sub(real1, imaginary1, real2, imaginary2, realOut, imaginaryOut);
+            return realOut[size - 1];
+        });
+        measure("ComplexBatch int mul", size, () -> {
+            ComplexBatch.mul(real1, imaginary1, real2, imaginary2, realOut, imaginaryOut);
+            return realOut[size - 1];
+        });
+        measure("ComplexBatch int equal", size, () -> {
+            ComplexBatch.equal(real1, imaginary1, real2, imaginary2, equalOut);
+            return equalOut[size - 1] ? 1 : 0;
+        });
+        measure("ComplexBatch double add", size, () -> {
+            ComplexBatch.add(doubleReal1, doubleImaginary1, doubleReal2, doubleImaginary2,
+                    doubleRealOut, doubleImaginaryOut);
+            return (long) doubleRealOut[size - 1];
+        });
+        measure("ComplexBatch double mul", size, () -> {
+            ComplexBatch.mul(doubleReal1, doubleImaginary1, doubleReal2, doubleImaginary2,
+                    doubleRealOut, doubleImaginaryOut);
+            return (long) doubleRealOut[size - 1];
+        });
+    }
+
+    /**
+     * Compares a multiply-accumulate chain and an element-wise product done with ComplexNumberCalculator
+     * objects against the same work on PackedComplex values.
+     *
+     * @throws Exception If an operation fails.
+     */
+    static void packed() throws Exception {
+        Random random = new Random(7);
+        int[] real1 = randomInts(random, size);
+        int[] imaginary1 = randomInts(random, size);
+        int[] real2 = randomInts(random, size);
+        int[] imaginary2 = randomInts(random, size);
+        long[] packed1 = new long[size];
+        long[] packed2 = new long[size];
+        long[] packedOut = new long[size];
+        for (int i = 0; i < size; i++) {
+            packed1[i] = PackedComplex.of(real1[i], imaginary1[i]);
+            packed2[i] = PackedComplex.of(real2[i], imaginary2[i]);
+        }
+
+        System.out.printf("packed, %d pairs%n", size);
+        measure("ComplexNumberCalculator mul+sum", size, () -> {
+            ComplexNumber total = new ComplexNumber(0, 0);
+            for (int i = 0; i < size; i++) {
+                ComplexNumber product =
+                        new ComplexNumberCalculator(real1[i], imaginary1[i], real2[i], imaginary2[i]).mul();
+                total = new ComplexNumberCalculator(total.getReal(), total.getImaginary(),
+                        product.getReal(), product.getImaginary()).sum();
+            }
+            return total.getReal();
+        });
+        measure("PackedComplex mulAdd", size, () -> {
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                total = PackedComplex.mulAdd(total, packed1[i], packed2[i]);
+            }
+            return total;
+        });
+        measure("ComplexNumberCalculator mul", size, () -> {
+            for (int i = 0; i < size; i++) {
+                ComplexNumber product =
+                        new ComplexNumberCalculator(real1[i], imaginary1[i], real2[i], imaginary2[i]).mul();
+                packedOut[i] = PackedComplex.of(product);
+            }
+            return packedOut[size - 1];
+        });
+        measure("PackedComplex mul", size, () -> {
+            for (int i = 0; i < size; i++) {
+                packedOut[i] = PackedComplex.mul(packed1[i], packed2[i]);
+            }
+            return packedOut[size - 1];
+        });
+    }
+
+    /**
+     * Measures DoubleComplex operations over arrays of parts. The objects only live inside one iteration,
+     * so the JIT can scalar-replace them; the allocation column shows whether it did. The mul+add chain
+     * carries its total from one iteration to the next, which escape analysis does not follow, so it
+     * shows the cost of one object per element.
+     *
+     * @throws Exception If an operation fails.
+     */
+    static void doubles() throws Exception {
+        Random random = new Random(13);
+        double[] real1 = randomDoubles(random, size);
+        double[] imaginary1 = randomDoubles(random, size);
+        double[] real2 = randomDoubles(random, size);
+        double[] imaginary2 = randomDoubles(random, size);
+        double[] realOut = new double[size];
+        double[] imaginaryOut = new double[size];
+
+        System.out.printf("double, %d pairs%n", size);
+        measure("DoubleComplex mul", size, () -> {
+            for (int i = 0; i < size; i++) {
+                DoubleComplex product = new DoubleComplex(real1[i], imaginary1[i])
+                        .mul(new DoubleComplex(real2[i], imaginary2[i]));
+                realOut[i] = product.getReal();
+                imaginaryOut[i] = product.getImaginary();
+            }
+            return (long) realOut[size - 1];
+        });
+        measure("ComplexBatch double mul", size, () -> {
+            ComplexBatch.mul(real1, imaginary1, real2, imaginary2, realOut, imaginaryOut);
+            return (long) realOut[size - 1];
+        });
+        measure("DoubleComplex div", size, () -> {
+            for (int i = 0; i < size; i++) {
+                DoubleComplex quotient = new DoubleComplex(real1[i], imaginary1[i])
+                        .div(new DoubleComplex(real2[i], imaginary2[i]));
+                realOut[i] = quotient.getReal();
+                imaginaryOut[i] = quotient.getImaginary();
+            }
+            return (long) realOut[size - 1];
+        });
+        measure("DoubleComplex mul+add", size, () -> {
+            DoubleComplex total = DoubleComplex.ZERO;
+            for (int i = 0; i < size; i++) {
+                total = total.add(new DoubleComplex(real1[i], imaginary1[i])
+                        .mul(new DoubleComplex(real2[i], imaginary2[i])));
+            }
+            return (long) (total.getReal() * 1000);
+        });
+        measure("DoubleComplex modulus", size, () -> {
+            for (int i = 0; i < size; i++) {
+                realOut[i] = new DoubleComplex(real1[i], imaginary1[i]).modulus();
+            }
+            return (long) realOut[size - 1];
+        });
+    }
+
+    /**
+     * Compares ComplexFFT with a naive O(n^2) DFT made of DoubleComplex mul and add calls, for a
+     * power-of-two size and a size that needs Bluestein's algorithm, and then measures a transform of
+     * size complex numbers sequentially and on the common ForkJoin pool. Before the timings, the largest
+     * difference between the FFT and the DFT is printed relative to the largest DFT value.
+     *
+     * @throws Exception If an operation fails.
+     */
+    static void fft() throws Exception {
+        Random random = new Random(17);
+        for (int n : new int[] {1024, 1000}) {
+            double[] input = randomDoubles(random, 2 * n);
+            DoubleComplex[] numbers = ComplexFFT.toComplex(input);
+            double[] data = new double[2 * n];
+            DoubleComplex[] expected = naiveDft(numbers);
+            System.arraycopy(input, 0, data, 0, data.length);
+            ComplexFFT.transform(data);
+            double error = 0;
+            double largest = 0;
+            for (int k = 0; k < n; k++) {
+                error = Math.max(error, Math.hypot(data[2 * k] - expected[k].getReal(),
+                        data[2 * k + 1] - expected[k].getImaginary()));
+                largest = Math.max(largest, expected[k].modulus());
+            }
+            System.out.printf("fft, %d points, relative error %.2e%n", n, error / largest);
+            measure("naive DFT (DoubleComplex)", n, () -> (long) naiveDft(numbers)[n - 1].getReal());
+            measure("ComplexFFT.transform", n, () -> {
+                System.arraycopy(input, 0, data, 0, data.length);
+                ComplexFFT.transform(data);
+                return (long) data[2];
+            });
+        }
+
+        double[] input = randomDoubles(random, 2 * size);
+        double[] data = new double[2 * size];
+        System.out.printf("fft, %d points, %d pool threads%n", size, ForkJoinPool.getCommonPoolParallelism());
+        measure("ComplexFFT sequential", size, () -> {
+            System.arraycopy(input, 0, data, 0, data.length);
+            ComplexFFT.transform(data, false);
+            return (long) data[2];
+        });
+        measure("ComplexFFT parallel", size, () -> {
+            System.arraycopy(input, 0, data, 0, data.length);
+            ComplexFFT.transform(data, true);
+            return (long) data[2];
+        });
+    }
+
+    /**
+     * Computes the DFT straight from its definition, one DoubleComplex product and sum per term. The n
+     * roots of unity are computed once, so the time is spent on the n^2 products and sums.
+     *
+     * @param numbers The complex numbers.
+     * @return Their transform.
+     */
+    static DoubleComplex[] naiveDft(DoubleComplex[] numbers) {
+        int n = numbers.length;
+        DoubleComplex[] roots = new DoubleComplex[n];
+        for (int k = 0; k < n; k++) {
+            roots[k] = DoubleComplex.fromPolar(1, -2 * Math.PI * k / n);
+        }
+        DoubleComplex[] result = new DoubleComplex[n];
+        for (int k = 0; k < n; k++) {
+            DoubleComplex total = DoubleComplex.ZERO;
+            for (int j = 0; j < n; j++) {
+                total = total.add(numbers[j].mul(roots[(int) ((long) j * k % n)]));
+            }
+            result[k] = total;
+        }
+        return result;
+    }
+
+    /**
+     * Compares a triple loop of ComplexNumber objects with ComplexMatrix multiplication, then measures
+     * matrix-vector products and batched polynomial evaluation. A complex multiply-add counts as 8
+     * floating-point operations; the ComplexNumber loop does the same 8 operations in int arithmetic.
+     *
+     * @throws Exception If an operation fails.
+     */
+    static void matrix() throws Exception {
+        Random random = new Random(19);
+        int n = 256;
+        long multiplyAdds = (long) n * n * n;
+        ComplexNumber[][] a = new ComplexNumber[n][n];
+        ComplexNumber[][] b = new ComplexNumber[n][n];
+        ComplexMatrix left = new ComplexMatrix(n, n);
+        ComplexMatrix right = new ComplexMatrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = new ComplexNumber(random.nextInt(201) - 100, random.nextInt(201) - 100);
+                b[i][j] = new ComplexNumber(random.nextInt(201) - 100, random.nextInt(201) - 100);
+                left.set(i, j, DoubleComplex.of(a[i][j]));
+                right.set(i, j, DoubleComplex.of(b[i][j]));
+            }
+        }
+
+        System.out.printf("matrix, %d x %d times %d x %d%n", n, n, n, n);
+        measureFlops("ComplexNumber triple loop", multiplyAdds, 8 * multiplyAdds, () -> {
+            ComplexNumber[][] c = new ComplexNumber[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    ComplexNumber total = new ComplexNumber(0, 0);
+                    for (int k = 0; k < n; k++) {
+                        total = total.add(a[i][k].mul(b[k][j]));
+                    }
+                    c[i][j] = total;
+                }
+            }
+            return c[n - 1][n - 1].getReal();
+        });
+        measureFlops("ComplexMatrix multiply sequential", multiplyAdds, 8 * multiplyAdds,
+                () -> (long) left.multiply(right, false).getReal()[n * n - 1]);
+        measureFlops("ComplexMatrix multiply parallel", multiplyAdds, 8 * multiplyAdds,
+                () -> (long) left.multiply(right, true).getReal()[n * n - 1]);
+
+        int rows = 2048;
+        ComplexMatrix large = new ComplexMatrix(rows, rows, randomDoubles(random, rows * rows),
+                randomDoubles(random, rows * rows));
+        double[] vectorReal = randomDoubles(random, rows);
+        double[] vectorImaginary = randomDoubles(random, rows);
+        double[] outReal = new double[rows];
+        double[] outImaginary = new double[rows];
+        System.out.printf("matrix-vector, %d x %d%n", rows, rows);
+        measureFlops("ComplexMatrix multiply vector", (long) rows * rows, 8L * rows * rows, () -> {
+            large.multiply(vectorReal, vectorImaginary, outReal, outImaginary);
+            return (long) outReal[rows - 1];
+        });
+
+        int degree = 16;
+        ComplexPolynomial polynomial = new ComplexPolynomial(randomDoubles(random, degree + 1),
+                randomDoubles(random, degree + 1));
+        double[] xReal = randomDoubles(random, size);
+        double[] xImaginary = randomDoubles(random, size);
+        double[] valueReal = new double[size];
+        double[] valueImaginary = new double[size];
+        System.out.printf("polynomial, degree %d at %d points%n", degree, size);
+        measureFlops("ComplexPolynomial point by point", size, 8L * degree * size, () -> {
+            for (int p = 0; p < size; p++) {
+                DoubleComplex value = polynomial.evaluate(new DoubleComplex(xReal[p], xImaginary[p]));
+                valueReal[p] = value.getReal();
+                valueImaginary[p] = value.getImaginary();
+            }
+            return (long) valueReal[size - 1];
+        });
+        measureFlops("ComplexPolynomial batch", size, 8L * degree * size, () -> {
+            polynomial.evaluate(xReal, xImaginary, valueReal, valueImaginary);
+            return (long) valueReal[size - 1];
+        });
+    }
+
+    /**
+     * Compares reading and writing complex literals through Strings, with Integer.parseInt and
+     * ComplexNumber.toString, against ComplexCodec working on the bytes. Each run parses size literals
+     * and formats them again.
+     *
+     * @throws Exception If an operation fails.
+     */
+    static void codec() throws Exception {
+        Random random = new Random(23);
+        StringBuilder text = new StringBuilder(size * 24);
+        for (int i = 0; i < size; i++) {
+            text.append(new ComplexNumber(random.nextInt(), random.nextInt())).append('\n');
+        }
+        byte[] input = text.toString().getBytes(StandardCharsets.US_ASCII);
+        ComplexCodec codec = new ComplexCodec(input.length);
+        CountingOutputStream out = new CountingOutputStream();
+
+        System.out.printf("codec, %d literals, %d bytes%n", size, input.length);
+        measure("String parseInt + toString", size, () -> {
+            StringBuilder result = new StringBuilder(input.length);
+            for (String line : new String(input, StandardCharsets.US_ASCII).split("\n")) {
+                int sign = Math.max(line.lastIndexOf('+'), line.lastIndexOf('-'));
+                ComplexNumber number = new ComplexNumber(Integer.parseInt(line.substring(0, sign)),
+                        Integer.parseInt(line.substring(sign, line.length() - 1)));
+                result.append(number).append('\n');
+            }
+            out.write(result.toString().getBytes(StandardCharsets.US_ASCII));
+            return out.count;
+        });
+        measure("ComplexCodec parse + format", size, () -> {
+            for (int start = 0; start < input.length; ) {
+                int end = start;
+                while (input[end] != '\n') {
+                    end++;
+                }
+                if (codec.parseComplex(input, start, end)) {
+                    codec.appendComplex(codec.value()).newLine();
+                }
+                start = end + 1;
+            }
+            codec.writeTo(out);
+            return out.count;
+        });
+    }
+
+    /**
+     * Measures ComplexStreamEvaluator on size generated records, sequentially and in parallel with
+     * one thread per processor (at least two). The input is in memory and the output is discarded, so
+     * only parsing, evaluation and formatting are timed.
+     *
+     * @throws Exception If an operation fails.
+     */
+    static void stream() throws Exception {
+        Random random = new Random(11);
+        String[] operations = {"add", "sub", "mul", "equal"};
+        StringBuilder records = new StringBuilder(size * 48);
+        for (int i = 0; i < size; i++) {
+            records.append(random.nextInt()).append(' ').append(random.nextInt(2001) - 1000).append(' ')
+                    .append(random.nextInt(2001) - 1000).append(' ').append(random.nextInt()).append(' ')
+                    .append(operations[i & 3]).append('\n');
+        }
+        byte[] input = records.toString().getBytes(StandardCharsets.US_ASCII);
+        CountingOutputStream out = new CountingOutputStream();
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        System.out.printf("stream, %d records, %d bytes%n", size, input.length);
+        measure("ComplexStreamEvaluator 1 thread", size, () -> {
+            ComplexStreamEvaluator.evaluate(new ByteArrayInputStream(input), out, 1);
+            return out.count;
+        });
+        measure("ComplexStreamEvaluator " + threads + " threads", size, () -> {
+            ComplexStreamEvaluator.evaluate(new ByteArrayInputStream(input), out, threads);
+            return out.count;
+        });
+    }
+
+    /**
+     * An output stream that only counts the bytes written to it.
+     */
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    /**
+     * Runs the benchmarks named on the command line, or all of them.
+     *
+     * @param names The names of the benchmarks to run.
+     * @throws Exception If a benchmark fails.
+     */
+    private static void run(List<String> names) throws Exception {
+        for (String name : names) {
+            switch (name) {
+                case "batch":
+                    batch();
+                    break;
+                case "packed":
+                    packed();
+                    break;
+                case "double":
+                    doubles();
+                    break;
+                case "fft":
+                    fft();
+                    break;
+                case "matrix":
+                    matrix();
+                    break;
+                case "codec":
+                    codec();
+                    break;
+                case "stream":
+                    stream();
+                    break;
+                default:
+                    System.out.println("Unknown benchmark: " + name);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Parses the command line and runs the benchmarks.
+     *
+     * @param args The names of the benchmarks to run and optionally --size=N.
+     */
+    public static void main(String[] args) {
+        List<String> names = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--size=")) {
+                size = Integer.parseInt(arg.substring("--size=".length()));
+            } else {
+                names.add(arg);
+            }
+        }
+        if (names.isEmpty()) {
+            names.addAll(List.of("batch", "packed", "double", "fft", "matrix", "codec", "stream"));
+        }
+        try {
+            run(names);
+        } catch (Exception e) {
+            System.out.println("Error occurred: " + e.getMessage());
+        }
+    }
+}
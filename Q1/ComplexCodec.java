@@ -0,0 +1,280 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Reads and writes complex numbers as ASCII text directly in byte arrays, without creating Strings.
+ * The text format is the one of ComplexNumber.toString: "a+bi" when the imaginary part is not negative
+ * and "a-bi" otherwise, so "3+4i", "3-4i" and "-2147483648-2147483648i" all round-trip. Values are
+ * packed complex numbers as in PackedComplex.
+ *
+ * A codec owns a growable output buffer that the append methods write to and writeTo empties, so one
+ * codec per thread formats any amount of output without allocating once the buffer has grown. A parsed
+ * complex number is kept in the codec and read with value, since all 64 bits of a packed value are used
+ * and none is left to signal an error.
+ */
+final class ComplexCodec {
+    // Returned by parseInt for text that is not an int; outside the int range, so never a valid result.
+    static final long INVALID = Long.MIN_VALUE;
+
+    // "00" to "99" as ASCII, so appendInt needs one division per two digits.
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private byte[] buffer;
+    private int size;
+    private long value;
+
+    /**
+     * Constructs a codec with an empty output buffer.
+     *
+     * @param capacity The initial buffer size in bytes.
+     */
+    public ComplexCodec(int capacity) {
+        this.buffer = new byte[Math.max(64, capacity)];
+    }
+
+    /**
+     * Parses a decimal int the way Integer.parseInt does, from ASCII bytes: an optional sign followed
+     * by digits.
+     *
+     * @param data The bytes.
+     * @param from The first byte of the number.
+     * @param to One past the last byte of the number.
+     * @return The value, or INVALID if the bytes are not an int.
+     */
+    public static long parseInt(byte[] data, int from, int to) {
+        if (from >= to) {
+            return INVALID;
+        }
+        boolean negative = data[from] == '-';
+        int position = data[from] == '-' || data[from] == '+' ? from + 1 : from;
+        long magnitude = parseDigits(data, position, to);
+        if (magnitude == INVALID) {
+            return INVALID;
+        }
+        long result = negative ? -magnitude : magnitude;
+        return result < Integer.MIN_VALUE || result > Integer.MAX_VALUE ? INVALID : result;
+    }
+
+    /**
+     * Parses an unsigned run of decimal digits. Leading zeros are skipped, as Integer.parseInt does, and
+     * at most ten significant digits are accepted, so the value always fits in a long.
+     *
+     * @param data The bytes.
+     * @param from The first digit.
+     * @param to One past the last digit.
+     * @return The value, or INVALID if the range is empty, too long or holds a byte that is not a digit.
+     */
+    private static long parseDigits(byte[] data, int from, int to) {
+        if (from >= to) {
+            return INVALID;
+        }
+        int first = from;
+        while (first < to - 1 && data[first] == '0') {
+            first++;
+        }
+        if (to - first > 10) {
+            return INVALID;
+        }
+        long result = 0;
+        for (int i = first; i < to; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /**
+     * Parses a complex number in the format of ComplexNumber.toString. The real part may have a sign;
+     * the imaginary part follows with '+' or '-' and ends with 'i'. On success the number is available
+     * from value.
+     *
+     * @param data The bytes.
+     * @param from The first byte of the number.
+     * @param to One past the last byte of the number.
+     * @return true if the bytes are a complex number with int parts, false otherwise.
+     */
+    public boolean parseComplex(byte[] data, int from, int to) {
+        if (to - from < 4 || data[to - 1] != 'i') {
+            return false;
+        }
+        // The imaginary sign is the last '+' or '-' that is not the first byte.
+        int sign = to - 2;
+        while (sign > from && data[sign] != '+' && data[sign] != '-') {
+            sign--;
+        }
+        if (sign == from) {
+            return false;
+        }
+        long real = parseInt(data, from, sign);
+        long magnitude = parseDigits(data, sign + 1, to - 1);
+        if (real == INVALID || magnitude == INVALID) {
+            return false;
+        }
+        long imaginary = data[sign] == '-' ? -magnitude : magnitude;
+        if (imaginary < Integer.MIN_VALUE || imaginary > Integer.MAX_VALUE) {
+            return false;
+        }
+        value = PackedComplex.of((int) real, (int) imaginary);
+        return true;
+    }
+
+    /**
+     * Returns the complex number read by the last successful parseComplex.
+     *
+     * @return The packed complex number.
+     */
+    public long value() {
+        return value;
+    }
+
+    /**
+     * Appends a packed complex number in the format of ComplexNumber.toString.
+     *
+     * @param packed The packed complex number.
+     * @return This codec.
+     */
+    public ComplexCodec appendComplex(long packed) {
+        appendInt(PackedComplex.real(packed));
+        if (PackedComplex.imaginary(packed) >= 0) {
+            ensure(1);
+            buffer[size++] = '+';
+        }
+        appendInt(PackedComplex.imaginary(packed));
+        ensure(1);
+        buffer[size++] = 'i';
+        return this;
+    }
+
+    /**
+     * Appends an int in decimal, two digits at a time from the right. The digits are produced from the
+     * negative of the magnitude, which also covers Integer.MIN_VALUE, whose magnitude is not an int.
+     *
+     * @param number The number.
+     * @return This codec.
+     */
+    public ComplexCodec appendInt(int number) {
+        ensure(11);
+        int negative = number < 0 ? number : -number;
+        if (number < 0) {
+            buffer[size++] = '-';
+        }
+        int digits = 1;
+        for (int limit = -10; digits < 10 && negative <= limit; limit *= 10) {
+            digits++;
+        }
+        int position = size + digits;
+        while (negative <= -100) {
+            int quotient = negative / 100;
+            int pair = 2 * (quotient * 100 - negative);
+            buffer[--position] = DIGIT_PAIRS[pair + 1];
+            buffer[--position] = DIGIT_PAIRS[pair];
+            negative = quotient;
+        }
+        if (negative <= -10) {
+            buffer[--position] = DIGIT_PAIRS[-2 * negative + 1];
+            buffer[--position] = DIGIT_PAIRS[-2 * negative];
+        } else {
+            buffer[--position] = (byte) ('0' - negative);
+        }
+        size += digits;
+        return this;
+    }
+
+    /**
+     * Appends ASCII text.
+     *
+     * @param text The text.
+     * @return This codec.
+     */
+    public ComplexCodec appendAscii(String text) {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[size++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+
+    /**
+     * Appends a range of bytes.
+     *
+     * @param data The bytes.
+     * @param from The first byte.
+     * @param to One past the last byte.
+     * @return This codec.
+     */
+    public ComplexCodec appendBytes(byte[] data, int from, int to) {
+        ensure(to - from);
+        System.arraycopy(data, from, buffer, size, to - from);
+        size += to - from;
+        return this;
+    }
+
+    /**
+     * Appends a line break.
+     *
+     * @return This codec.
+     */
+    public ComplexCodec newLine() {
+        ensure(1);
+        buffer[size++] = '\n';
+        return this;
+    }
+
+    /**
+     * Returns the output buffer; its first size() bytes are the appended text.
+     *
+     * @return The buffer.
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns the number of appended bytes.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empties the output buffer, keeping its capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Writes the appended bytes to a stream and empties the output buffer.
+     *
+     * @param out The stream.
+     * @throws IOException If writing fails.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+        size = 0;
+    }
+
+    /**
+     * Grows the output buffer so that it has room for more bytes.
+     *
+     * @param extra The number of bytes about to be appended.
+     */
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(size + extra, buffer.length * 2));
+        }
+    }
+}
@@ -0,0 +1,419 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Discrete Fourier transforms over interleaved double[] buffers, where complex number k has its real
+ * part at index 2k and its imaginary part at index 2k + 1. Transforms work in place.
+ *
+ * Power-of-two sizes use an iterative radix-2 FFT: a bit-reversal permutation followed by log2(n) stages
+ * of butterflies. The first stages run block by block on blocks that fit in the L1 cache; the remaining
+ * stages sweep the whole buffer and are split over the common ForkJoin pool when the transform is large.
+ * Other sizes use Bluestein's algorithm, which rewrites the transform as a convolution and computes that
+ * with power-of-two FFTs. Twiddle factors and Bluestein chirps are computed once per size and cached.
+ *
+ * The forward transform is X[k] = sum of x[j] * exp(-2 pi i j k / n); the inverse uses the opposite sign
+ * and divides by n, so inverse(transform(x)) gives x back up to rounding.
+ */
+class ComplexFFT {
+    // Transforms of at least this many complex numbers use the ForkJoin pool when it has several threads.
+    static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    // Complex numbers per block in the first stages: 16 KB of doubles, which stays in the L1 cache.
+    private static final int CACHE_BLOCK = 1 << 10;
+
+    // Butterflies or blocks below which a parallel task runs its work directly.
+    private static final int GRAIN = 1 << 13;
+
+    // Twiddle factors exp(-2 pi i k / n) for k < n / 2, interleaved, by power-of-two size n.
+    private static final Map<Integer, double[]> TWIDDLES = new ConcurrentHashMap<>();
+
+    // Bluestein chirps and kernels by size.
+    private static final Map<Integer, BluesteinPlan> PLANS = new ConcurrentHashMap<>();
+
+    /**
+     * Transforms a buffer in place, in parallel if it is large and the common pool has several threads.
+     *
+     * @param data The interleaved complex numbers; receives their transform.
+     * @throws IllegalArgumentException If the buffer has an odd length.
+     */
+    public static void transform(double[] data) {
+        transform(data, data.length / 2 >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1);
+    }
+
+    /**
+     * Transforms a buffer in place.
+     *
+     * @param data The interleaved complex numbers; receives their transform.
+     * @param parallel Whether to split the butterfly stages over the common ForkJoin pool.
+     * @throws IllegalArgumentException If the buffer has an odd length.
+     */
+    public static void transform(double[] data, boolean parallel) {
+        int n = size(data);
+        if (n <= 1) {
+            return;
+        }
+        if (Integer.bitCount(n) == 1) {
+            radix2(data, n, parallel);
+        } else {
+            bluestein(data, n, parallel);
+        }
+    }
+
+    /**
+     * Inverse-transforms a buffer in place, in parallel if it is large and the common pool has several
+     * threads.
+     *
+     * @param data The interleaved transform; receives the complex numbers it is the transform of.
+     * @throws IllegalArgumentException If the buffer has an odd length.
+     */
+    public static void inverse(double[] data) {
+        inverse(data, data.length / 2 >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1);
+    }
+
+    /**
+     * Inverse-transforms a buffer in place. The inverse is the forward transform of the conjugates,
+     * conjugated and divided by n.
+     *
+     * @param data The interleaved transform; receives the complex numbers it is the transform of.
+     * @param parallel Whether to split the butterfly stages over the common ForkJoin pool.
+     * @throws IllegalArgumentException If the buffer has an odd length.
+     */
+    public static void inverse(double[] data, boolean parallel) {
+        int n = size(data);
+        for (int i = 1; i < data.length; i += 2) {
+            data[i] = -data[i];
+        }
+        transform(data, parallel);
+        double scale = 1.0 / Math.max(n, 1);
+        for (int i = 0; i < data.length; i += 2) {
+            data[i] *= scale;
+            data[i + 1] *= -scale;
+        }
+    }
+
+    /**
+     * Converts complex numbers to an interleaved buffer.
+     *
+     * @param numbers The complex numbers.
+     * @return The interleaved buffer.
+     */
+    public static double[] interleave(DoubleComplex[] numbers) {
+        double[] data = new double[2 * numbers.length];
+        for (int k = 0; k < numbers.length; k++) {
+            data[2 * k] = numbers[k].getReal();
+            data[2 * k + 1] = numbers[k].getImaginary();
+        }
+        return data;
+    }
+
+    /**
+     * Converts an interleaved buffer to complex numbers.
+     *
+     * @param data The interleaved buffer.
+     * @return The complex numbers.
+     * @throws IllegalArgumentException If the buffer has an odd length.
+     */
+    public static DoubleComplex[] toComplex(double[] data) {
+        DoubleComplex[] numbers = new DoubleComplex[size(data)];
+        for (int k = 0; k < numbers.length; k++) {
+            numbers[k] = new DoubleComplex(data[2 * k], data[2 * k + 1]);
+        }
+        return numbers;
+    }
+
+    /**
+     * Empties the twiddle and Bluestein caches.
+     */
+    public static void clearCache() {
+        TWIDDLES.clear();
+        PLANS.clear();
+    }
+
+    /**
+     * Returns the number of complex numbers in a buffer.
+     *
+     * @param data The interleaved buffer.
+     * @return Half its length.
+     * @throws IllegalArgumentException If the buffer has an odd length.
+     */
+    private static int size(double[] data) {
+        if ((data.length & 1) != 0) {
+            throw new IllegalArgumentException("Interleaved buffer has an odd length: " + data.length);
+        }
+        return data.length / 2;
+    }
+
+    /**
+     * Returns the cached twiddle factors of a power-of-two size, computing them on first use. Each factor
+     * is computed directly with cos and sin rather than by repeated multiplication, so errors do not grow
+     * with the index.
+     *
+     * @param n The transform size.
+     * @return exp(-2 pi i k / n) for k < n / 2, interleaved.
+     */
+    private static double[] twiddles(int n) {
+        return TWIDDLES.computeIfAbsent(n, size -> {
+            double[] twiddles = new double[size];
+            for (int k = 0; k < size / 2; k++) {
+                double angle = -2 * Math.PI * k / size;
+                twiddles[2 * k] = Math.cos(angle);
+                twiddles[2 * k + 1] = Math.sin(angle);
+            }
+            return twiddles;
+        });
+    }
+
+    /**
+     * Transforms a power-of-two sized buffer in place.
+     *
+     * @param data The interleaved complex numbers.
+     * @param n The number of complex numbers, a power of two.
+     * @param parallel Whether to use the common ForkJoin pool.
+     */
+    private static void radix2(double[] data, int n, boolean parallel) {
+        double[] twiddles = twiddles(n);
+        bitReverse(data, n);
+        int block = Math.min(n, CACHE_BLOCK);
+        int blocks = n / block;
+        if (parallel && blocks > 1) {
+            ForkJoinPool.commonPool().invoke(new BlockTask(data, twiddles, n, block, 0, blocks));
+        } else {
+            for (int start = 0; start < n; start += block) {
+                blockStages(data, twiddles, n, start, block);
+            }
+        }
+        for (int half = block; half < n; half *= 2) {
+            if (parallel) {
+                ForkJoinPool.commonPool().invoke(new StageTask(data, twiddles, n, half, 0, n / 2));
+            } else {
+                stage(data, twiddles, n, half, 0, n / 2);
+            }
+        }
+    }
+
+    /**
+     * Puts the complex numbers of a buffer in bit-reversed index order.
+     *
+     * @param data The interleaved complex numbers.
+     * @param n The number of complex numbers, a power of two.
+     */
+    private static void bitReverse(double[] data, int n) {
+        int shift = Integer.numberOfLeadingZeros(n) + 1;
+        for (int i = 0; i < n; i++) {
+            int j = Integer.reverse(i) >>> shift;
+            if (i < j) {
+                double real = data[2 * i];
+                double imaginary = data[2 * i + 1];
+                data[2 * i] = data[2 * j];
+                data[2 * i + 1] = data[2 * j + 1];
+                data[2 * j] = real;
+                data[2 * j + 1] = imaginary;
+            }
+        }
+    }
+
+    /**
+     * Runs all stages whose butterflies stay inside one block.
+     *
+     * @param data The interleaved complex numbers, in bit-reversed order.
+     * @param twiddles The twiddle factors of the full size.
+     * @param n The number of complex numbers.
+     * @param start The index of the first complex number of the block.
+     * @param block The number of complex numbers of the block, a power of two.
+     */
+    private static void blockStages(double[] data, double[] twiddles, int n, int start, int block) {
+        for (int half = 1; half < block; half *= 2) {
+            // The butterflies of this stage inside the block are numbered start / 2 up to (start + block) / 2.
+            stage(data, twiddles, n, half, start / 2, (start + block) / 2);
+        }
+    }
+
+    /**
+     * Runs a range of the butterflies of one stage. Butterfly t of the stage with half-span h pairs the
+     * complex numbers p = 2h * (t / h) + t % h and p + h, with the twiddle factor of index (t % h) * n / 2h.
+     *
+     * @param data The interleaved complex numbers.
+     * @param twiddles The twiddle factors of the full size.
+     * @param n The number of complex numbers.
+     * @param half The distance between the two numbers of a butterfly.
+     * @param from The first butterfly.
+     * @param to One past the last butterfly.
+     */
+    private static void stage(double[] data, double[] twiddles, int n, int half, int from, int to) {
+        int step = n / (2 * half);
+        int t = from;
+        while (t < to) {
+            int offset = t % half;
+            int base = 2 * (t - offset);
+            int end = Math.min(half, offset + (to - t));
+            for (int j = offset; j < end; j++) {
+                int p = 2 * (base + j);
+                int q = p + 2 * half;
+                int w = 2 * j * step;
+                double wr = twiddles[w];
+                double wi = twiddles[w + 1];
+                double xr = data[q];
+                double xi = data[q + 1];
+                double vr = Math.fma(xr, wr, -xi * wi);
+                double vi = Math.fma(xr, wi, xi * wr);
+                double ur = data[p];
+                double ui = data[p + 1];
+                data[p] = ur + vr;
+                data[p + 1] = ui + vi;
+                data[q] = ur - vr;
+                data[q + 1] = ui - vi;
+            }
+            t += end - offset;
+        }
+    }
+
+    /**
+     * Transforms a buffer of any size in place with Bluestein's algorithm. With the chirp
+     * w[k] = exp(-pi i k^2 / n), X[k] = w[k] * sum of (x[j] * w[j]) * conj(w[k - j]), a convolution that
+     * is computed with power-of-two FFTs of size m >= 2n - 1.
+     *
+     * @param data The interleaved complex numbers.
+     * @param n The number of complex numbers.
+     * @param parallel Whether the inner transforms use the common ForkJoin pool.
+     */
+    private static void bluestein(double[] data, int n, boolean parallel) {
+        BluesteinPlan plan = PLANS.computeIfAbsent(n, BluesteinPlan::new);
+        double[] chirp = plan.chirp;
+        double[] kernel = plan.kernel;
+        int m = plan.m;
+        double[] work = new double[2 * m];
+        for (int k = 0; k < n; k++) {
+            double xr = data[2 * k];
+            double xi = data[2 * k + 1];
+            double cr = chirp[2 * k];
+            double ci = chirp[2 * k + 1];
+            work[2 * k] = Math.fma(xr, cr, -xi * ci);
+            work[2 * k + 1] = Math.fma(xr, ci, xi * cr);
+        }
+        radix2(work, m, parallel);
+        // Multiply by the transformed kernel, which carries the 1 / m of the inverse, and conjugate, so
+        // that a forward transform followed by another conjugation is the inverse transform.
+        for (int k = 0; k < m; k++) {
+            double ar = work[2 * k];
+            double ai = work[2 * k + 1];
+            double br = kernel[2 * k];
+            double bi = kernel[2 * k + 1];
+            work[2 * k] = Math.fma(ar, br, -ai * bi);
+            work[2 * k + 1] = -Math.fma(ar, bi, ai * br);
+        }
+        radix2(work, m, parallel);
+        for (int k = 0; k < n; k++) {
+            double yr = work[2 * k];
+            double yi = -work[2 * k + 1];
+            double cr = chirp[2 * k];
+            double ci = chirp[2 * k + 1];
+            data[2 * k] = Math.fma(yr, cr, -yi * ci);
+            data[2 * k + 1] = Math.fma(yr, ci, yi * cr);
+        }
+    }
+
+    /**
+     * The size-dependent parts of Bluestein's algorithm.
+     */
+    private static class BluesteinPlan {
+        final int m;          // Size of the inner power-of-two transforms
+        final double[] chirp;  // w[k] = exp(-pi i k^2 / n) for k < n, interleaved
+        final double[] kernel; // Transform of conj(w) wrapped around to size m, divided by m
+
+        BluesteinPlan(int n) {
+            m = Integer.highestOneBit(2 * n - 1) << 1;
+            chirp = new double[2 * n];
+            for (int k = 0; k < n; k++) {
+                // k^2 mod 2n keeps the angle small, so its rounding error does not grow with k.
+                long square = (long) k * k % (2L * n);
+                double angle = -Math.PI * square / n;
+                chirp[2 * k] = Math.cos(angle);
+                chirp[2 * k + 1] = Math.sin(angle);
+            }
+            kernel = new double[2 * m];
+            double scale = 1.0 / m;
+            for (int k = 0; k < n; k++) {
+                kernel[2 * k] = chirp[2 * k] * scale;
+                kernel[2 * k + 1] = -chirp[2 * k + 1] * scale;
+                if (k > 0) {
+                    kernel[2 * (m - k)] = kernel[2 * k];
+                    kernel[2 * (m - k) + 1] = kernel[2 * k + 1];
+                }
+            }
+            radix2(kernel, m, false);
+        }
+    }
+
+    /**
+     * Runs the in-cache stages of a range of blocks, splitting the range in halves.
+     */
+    private static class BlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] data;
+        private final double[] twiddles;
+        private final int n;
+        private final int block;
+        private final int from;
+        private final int to;
+
+        BlockTask(double[] data, double[] twiddles, int n, int block, int from, int to) {
+            this.data = data;
+            this.twiddles = twiddles;
+            this.n = n;
+            this.block = block;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if ((long) (to - from) * block <= 2L * GRAIN) {
+                for (int b = from; b < to; b++) {
+                    blockStages(data, twiddles, n, b * block, block);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BlockTask(data, twiddles, n, block, from, middle),
+                    new BlockTask(data, twiddles, n, block, middle, to));
+        }
+    }
+
+    /**
+     * Runs a range of the butterflies of one stage, splitting the range in halves. Butterflies of a
+     * stage touch disjoint pairs of numbers, so the ranges never interfere.
+     */
+    private static class StageTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] data;
+        private final double[] twiddles;
+        private final int n;
+        private final int half;
+        private final int from;
+        private final int to;
+
+        StageTask(double[] data, double[] twiddles, int n, int half, int from, int to) {
+            this.data = data;
+            this.twiddles = twiddles;
+            this.n = n;
+            this.half = half;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                stage(data, twiddles, n, half, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new StageTask(data, twiddles, n, half, from, middle),
+                    new StageTask(data, twiddles, n, half, middle, to));
+        }
+    }
+}
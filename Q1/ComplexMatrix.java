@@ -0,0 +1,355 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A dense complex matrix stored as structure of arrays: the real parts in one row-major double[] and
+ * the imaginary parts in another. Keeping the parts apart lets the inner loops of the products run over
+ * contiguous primitive arrays, which HotSpot's C2 compiler turns into SIMD code, as in ComplexBatch.
+ *
+ * Matrix products are cache-blocked: the inner dimension and the columns of the result are cut into
+ * BLOCK-wide tiles, so the tile of the right operand being read stays in cache while every row of the
+ * left operand passes over it. Large products split their rows over the common ForkJoin pool; each task
+ * writes its own rows of the result, so tasks never share output.
+ */
+final class ComplexMatrix {
+    // Tile width for the inner dimension and the result columns: a 64 x 64 tile of both parts is 64 KB.
+    private static final int BLOCK = 64;
+
+    // Products with at least this many complex multiply-adds use the ForkJoin pool when it has several threads.
+    static final long PARALLEL_THRESHOLD = 1L << 18;
+
+    private final int rows;
+    private final int columns;
+    private final double[] real;      // Real parts, row-major
+    private final double[] imaginary; // Imaginary parts, row-major
+
+    /**
+     * Constructs a zero matrix.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @throws IllegalArgumentException If a dimension is negative or the matrix has more than
+     *                                  Integer.MAX_VALUE elements.
+     */
+    public ComplexMatrix(int rows, int columns) {
+        if (rows < 0 || columns < 0 || (long) rows * columns > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid matrix size: " + rows + " x " + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.real = new double[rows * columns];
+        this.imaginary = new double[rows * columns];
+    }
+
+    /**
+     * Constructs a matrix backed by existing row-major arrays, without copying them.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     * @param real The real parts, row-major.
+     * @param imaginary The imaginary parts, row-major.
+     * @throws IllegalArgumentException If an array does not have rows * columns elements.
+     */
+    public ComplexMatrix(int rows, int columns, double[] real, double[] imaginary) {
+        if (rows < 0 || columns < 0 || (long) rows * columns != real.length || real.length != imaginary.length) {
+            throw new IllegalArgumentException("Arrays of length " + real.length + " and " + imaginary.length
+                    + " do not fit a " + rows + " x " + columns + " matrix");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the backing array of real parts, row-major. Changes to it change the matrix.
+     *
+     * @return The real parts.
+     */
+    public double[] getReal() {
+        return real;
+    }
+
+    /**
+     * Returns the backing array of imaginary parts, row-major. Changes to it change the matrix.
+     *
+     * @return The imaginary parts.
+     */
+    public double[] getImaginary() {
+        return imaginary;
+    }
+
+    /**
+     * Returns an element.
+     *
+     * @param row The row.
+     * @param column The column.
+     * @return The element.
+     */
+    public DoubleComplex get(int row, int column) {
+        int index = index(row, column);
+        return new DoubleComplex(real[index], imaginary[index]);
+    }
+
+    /**
+     * Sets an element.
+     *
+     * @param row The row.
+     * @param column The column.
+     * @param value The new element.
+     */
+    public void set(int row, int column, DoubleComplex value) {
+        int index = index(row, column);
+        real[index] = value.getReal();
+        imaginary[index] = value.getImaginary();
+    }
+
+    /**
+     * Returns the array index of an element.
+     *
+     * @param row The row.
+     * @param column The column.
+     * @return The index into the backing arrays.
+     * @throws IndexOutOfBoundsException If the element is outside the matrix.
+     */
+    private int index(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("(" + row + ", " + column + ") is outside a "
+                    + rows + " x " + columns + " matrix");
+        }
+        return row * columns + column;
+    }
+
+    /**
+     * Multiplies this matrix by another, in parallel if the product is large and the common pool has
+     * several threads.
+     *
+     * @param other The right operand.
+     * @return The product.
+     * @throws IllegalArgumentException If the column count of this matrix differs from the row count of
+     *                                  the other.
+     */
+    public ComplexMatrix multiply(ComplexMatrix other) {
+        long work = (long) rows * columns * other.columns;
+        return multiply(other, work >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1);
+    }
+
+    /**
+     * Multiplies this matrix by another.
+     *
+     * @param other The right operand.
+     * @param parallel Whether to split the rows of the product over the common ForkJoin pool.
+     * @return The product.
+     * @throws IllegalArgumentException If the column count of this matrix differs from the row count of
+     *                                  the other.
+     */
+    public ComplexMatrix multiply(ComplexMatrix other, boolean parallel) {
+        if (columns != other.rows) {
+            throw new IllegalArgumentException("Cannot multiply a " + rows + " x " + columns + " matrix by a "
+                    + other.rows + " x " + other.columns + " matrix");
+        }
+        ComplexMatrix product = new ComplexMatrix(rows, other.columns);
+        if (parallel && rows > BLOCK) {
+            ForkJoinPool.commonPool().invoke(new RowTask(this, other, product, 0, rows));
+        } else {
+            multiplyRows(other, product, 0, rows);
+        }
+        return product;
+    }
+
+    /**
+     * Adds the product of a range of rows of this matrix and another matrix to the same rows of a
+     * result, tile by tile. Each tile of the other matrix is first copied into an array per row, and
+     * each row segment of the result into an accumulator, so the innermost loop reads and writes all its
+     * arrays at the same index. C2 only vectorizes a loop when it can rule out that a store to one double[]
+     * changes a later load from another, and with equal indices that holds even if the arrays were the same.
+     *
+     * @param other The right operand.
+     * @param product The result.
+     * @param rowFrom The first row.
+     * @param rowTo One past the last row.
+     */
+    private void multiplyRows(ComplexMatrix other, ComplexMatrix product, int rowFrom, int rowTo) {
+        double[] bReal = other.real;
+        double[] bImaginary = other.imaginary;
+        double[] cReal = product.real;
+        double[] cImaginary = product.imaginary;
+        int inner = columns;
+        int width = other.columns;
+        double[][] tileReal = new double[BLOCK][BLOCK];
+        double[][] tileImaginary = new double[BLOCK][BLOCK];
+        double[] sumReal = new double[BLOCK];
+        double[] sumImaginary = new double[BLOCK];
+        for (int kStart = 0; kStart < inner; kStart += BLOCK) {
+            int kCount = Math.min(inner - kStart, BLOCK);
+            for (int jStart = 0; jStart < width; jStart += BLOCK) {
+                int jCount = Math.min(width - jStart, BLOCK);
+                for (int k = 0; k < kCount; k++) {
+                    System.arraycopy(bReal, (kStart + k) * width + jStart, tileReal[k], 0, jCount);
+                    System.arraycopy(bImaginary, (kStart + k) * width + jStart, tileImaginary[k], 0, jCount);
+                }
+                for (int i = rowFrom; i < rowTo; i++) {
+                    int aRow = i * inner + kStart;
+                    int cRow = i * width + jStart;
+                    System.arraycopy(cReal, cRow, sumReal, 0, jCount);
+                    System.arraycopy(cImaginary, cRow, sumImaginary, 0, jCount);
+                    for (int k = 0; k < kCount; k++) {
+                        double ar = real[aRow + k];
+                        double ai = imaginary[aRow + k];
+                        double[] br = tileReal[k];
+                        double[] bi = tileImaginary[k];
+                        for (int j = 0; j < jCount; j++) {
+                            sumReal[j] += ar * br[j] - ai * bi[j];
+                            sumImaginary[j] += ar * bi[j] + ai * br[j];
+                        }
+                    }
+                    System.arraycopy(sumReal, 0, cReal, cRow, jCount);
+                    System.arraycopy(sumImaginary, 0, cImaginary, cRow, jCount);
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies this matrix by a vector stored as split arrays, in parallel if the product is large and
+     * the common pool has several threads.
+     *
+     * @param vectorReal The real parts of the vector, one per column.
+     * @param vectorImaginary The imaginary parts of the vector, one per column.
+     * @param outReal Receives the real parts of the product, one per row.
+     * @param outImaginary Receives the imaginary parts of the product, one per row.
+     * @throws IllegalArgumentException If an array has the wrong length.
+     */
+    public void multiply(double[] vectorReal, double[] vectorImaginary, double[] outReal, double[] outImaginary) {
+        if (vectorReal.length != columns || vectorImaginary.length != columns
+                || outReal.length != rows || outImaginary.length != rows) {
+            throw new IllegalArgumentException("Vectors of length " + vectorReal.length + " and " + outReal.length
+                    + " do not fit a " + rows + " x " + columns + " matrix");
+        }
+        if ((long) rows * columns >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            ForkJoinPool.commonPool().invoke(
+                    new VectorTask(this, vectorReal, vectorImaginary, outReal, outImaginary, 0, rows));
+        } else {
+            multiplyVectorRows(vectorReal, vectorImaginary, outReal, outImaginary, 0, rows);
+        }
+    }
+
+    /**
+     * Computes a range of rows of a matrix-vector product.
+     *
+     * @param vectorReal The real parts of the vector.
+     * @param vectorImaginary The imaginary parts of the vector.
+     * @param outReal Receives the real parts of the product.
+     * @param outImaginary Receives the imaginary parts of the product.
+     * @param rowFrom The first row.
+     * @param rowTo One past the last row.
+     */
+    private void multiplyVectorRows(double[] vectorReal, double[] vectorImaginary, double[] outReal,
+                                    double[] outImaginary, int rowFrom, int rowTo) {
+        for (int i = rowFrom; i < rowTo; i++) {
+            int row = i * columns;
+            double sumReal = 0;
+            double sumImaginary = 0;
+            for (int k = 0; k < columns; k++) {
+                double ar = real[row + k];
+                double ai = imaginary[row + k];
+                double xr = vectorReal[k];
+                double xi = vectorImaginary[k];
+                sumReal += ar * xr - ai * xi;
+                sumImaginary += ar * xi + ai * xr;
+            }
+            outReal[i] = sumReal;
+            outImaginary[i] = sumImaginary;
+        }
+    }
+
+    /**
+     * Computes a range of rows of a matrix product, splitting the range in halves down to one tile of rows.
+     */
+    private static class RowTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ComplexMatrix left;
+        private final ComplexMatrix right;
+        private final ComplexMatrix product;
+        private final int from;
+        private final int to;
+
+        RowTask(ComplexMatrix left, ComplexMatrix right, ComplexMatrix product, int from, int to) {
+            this.left = left;
+            this.right = right;
+            this.product = product;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BLOCK) {
+                left.multiplyRows(right, product, from, to);
+                return;
+            }
+            int middle = from + ((to - from) / 2 + BLOCK - 1) / BLOCK * BLOCK;
+            invokeAll(new RowTask(left, right, product, from, middle),
+                    new RowTask(left, right, product, middle, to));
+        }
+    }
+
+    /**
+     * Computes a range of rows of a matrix-vector product, splitting the range in halves.
+     */
+    private static class VectorTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // Rows per task; enough that a task does at least a few thousand multiply-adds.
+        private static final int GRAIN = 256;
+
+        private final ComplexMatrix matrix;
+        private final double[] vectorReal;
+        private final double[] vectorImaginary;
+        private final double[] outReal;
+        private final double[] outImaginary;
+        private final int from;
+        private final int to;
+
+        VectorTask(ComplexMatrix matrix, double[] vectorReal, double[] vectorImaginary, double[] outReal,
+                   double[] outImaginary, int from, int to) {
+            this.matrix = matrix;
+            this.vectorReal = vectorReal;
+            this.vectorImaginary = vectorImaginary;
+            this.outReal = outReal;
+            this.outImaginary = outImaginary;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                matrix.multiplyVectorRows(vectorReal, vectorImaginary, outReal, outImaginary, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new VectorTask(matrix, vectorReal, vectorImaginary, outReal, outImaginary, from, middle),
+                    new VectorTask(matrix, vectorReal, vectorImaginary, outReal, outImaginary, middle, to));
+        }
+    }
+}
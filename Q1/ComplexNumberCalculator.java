@@ -1,7 +1,11 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+
 /**
- * Represents a complex number with real and imaginary parts.
+ * Represents a complex number with real and imaginary parts. Its arithmetic wraps on int overflow like
+ * ComplexNumberCalculator.
  */
-class ComplexNumber {
+class ComplexNumber implements Complex<ComplexNumber> {
     private int real;     // The real part of the complex number
     private int imaginary; // The imaginary part of the complex number
 
@@ -52,6 +56,99 @@ class ComplexNumber {
         this.imaginary = imaginary;
     }
 
+    @Override
+    public ComplexNumber add(ComplexNumber other) {
+        return new ComplexNumber(real + other.real, imaginary + other.imaginary);
+    }
+
+    @Override
+    public ComplexNumber sub(ComplexNumber other) {
+        return new ComplexNumber(real - other.real, imaginary - other.imaginary);
+    }
+
+    @Override
+    public ComplexNumber mul(ComplexNumber other) {
+        return new ComplexNumber(real * other.real - imaginary * other.imaginary,
+                real * other.imaginary + imaginary * other.real);
+    }
+
+    /**
+     * Calculates the quotient of this number and another. Each part of the exact quotient is truncated
+     * toward zero, like int division, and wraps if it does not fit in an int.
+     *
+     * @param other The divisor.
+     * @return The quotient.
+     * @throws ArithmeticException If the divisor is zero.
+     */
+    @Override
+    public ComplexNumber div(ComplexNumber other) {
+        long a = real;
+        long b = imaginary;
+        long c = other.real;
+        long d = other.imaginary;
+        if (c == 0 && d == 0) {
+            throw new ArithmeticException("Division by zero: " + this + " / " + other);
+        }
+        try {
+            // Each product fits in a long; only sums of two products of Integer.MIN_VALUE overflow.
+            long denominator = Math.addExact(c * c, d * d);
+            long realNumerator = Math.addExact(a * c, b * d);
+            long imaginaryNumerator = Math.subtractExact(b * c, a * d);
+            return new ComplexNumber((int) (realNumerator / denominator), (int) (imaginaryNumerator / denominator));
+        } catch (ArithmeticException e) {
+            BigInteger bigA = BigInteger.valueOf(a);
+            BigInteger bigB = BigInteger.valueOf(b);
+            BigInteger bigC = BigInteger.valueOf(c);
+            BigInteger bigD = BigInteger.valueOf(d);
+            BigInteger denominator = bigC.multiply(bigC).add(bigD.multiply(bigD));
+            return new ComplexNumber(bigA.multiply(bigC).add(bigB.multiply(bigD)).divide(denominator).intValue(),
+                    bigB.multiply(bigC).subtract(bigA.multiply(bigD)).divide(denominator).intValue());
+        }
+    }
+
+    @Override
+    public ComplexNumber conjugate() {
+        return new ComplexNumber(real, -imaginary);
+    }
+
+    /**
+     * Raises this number to a power; the parts wrap on int overflow.
+     *
+     * @param exponent The exponent, at least 0.
+     * @return This number to the given power.
+     * @throws ArithmeticException If the exponent is negative, since the result is not a Gaussian integer.
+     */
+    @Override
+    public ComplexNumber pow(int exponent) {
+        if (exponent < 0) {
+            throw new ArithmeticException("Negative exponent for an int complex number: " + exponent);
+        }
+        ComplexNumber result = new ComplexNumber(1, 0);
+        ComplexNumber square = this;
+        for (int e = exponent; e != 0; e >>>= 1) {
+            if ((e & 1) != 0) {
+                result = result.mul(square);
+            }
+            square = square.mul(square);
+        }
+        return result;
+    }
+
+    @Override
+    public double modulus() {
+        return Math.hypot(real, imaginary);
+    }
+
+    @Override
+    public double argument() {
+        return Math.atan2(imaginary, real);
+    }
+
+    @Override
+    public boolean equal(ComplexNumber other) {
+        return real == other.real && imaginary == other.imaginary;
+    }
+
     /**
      * Returns a string representation of the complex number in the format "a+bi" or "a-bi".
      *
@@ -132,9 +229,15 @@ class ComplexNumberCalculator {
     /**
      * The main method to execute the program and handle command line arguments.
      *
-     * @param args Command line arguments: real1, imaginary1, real2, imaginary2, operation.
+     * @param args Command line arguments: real1, imaginary1, real2, imaginary2, operation; or --stream,
+     *             optionally followed by a file of such records and --threads=N, to evaluate many records
+     *             with ComplexStreamEvaluator.
      */
     public static void main(String[] args) {
+        if (args.length >= 1 && args[0].equals("--stream")) {
+            ComplexStreamEvaluator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         if (args.length < 5) {
             System.out.println("Please enter 5 arguments: <real1> <imaginary1> <real2> <imaginary2> <operation>");
             return;
@@ -0,0 +1,193 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A polynomial with complex coefficients, evaluated with Horner's method. The batch evaluation takes
+ * the points as split real and imaginary arrays and turns the loops around: instead of running the whole
+ * Horner recurrence for one point before the next, it applies one coefficient to a chunk of points at a
+ * time. The inner loop is then a branch-free pass over contiguous arrays that C2 vectorizes, and the
+ * chunk stays in the L1 cache for all coefficients. Large batches split their chunks over the common
+ * ForkJoin pool.
+ */
+final class ComplexPolynomial {
+    // Points per chunk: four double arrays of 512 elements take 16 KB.
+    private static final int CHUNK = 512;
+
+    // Batches with at least this many point-coefficient steps use the ForkJoin pool when it has several threads.
+    static final long PARALLEL_THRESHOLD = 1L << 18;
+
+    private final double[] real;      // Real parts of the coefficients, constant term first
+    private final double[] imaginary; // Imaginary parts of the coefficients, constant term first
+
+    /**
+     * Constructs a polynomial from split coefficient arrays, constant term first. The arrays are copied.
+     *
+     * @param real The real parts of the coefficients.
+     * @param imaginary The imaginary parts of the coefficients.
+     * @throws IllegalArgumentException If the arrays are empty or differ in length.
+     */
+    public ComplexPolynomial(double[] real, double[] imaginary) {
+        if (real.length == 0 || real.length != imaginary.length) {
+            throw new IllegalArgumentException("Invalid coefficient arrays of length " + real.length
+                    + " and " + imaginary.length);
+        }
+        this.real = real.clone();
+        this.imaginary = imaginary.clone();
+    }
+
+    /**
+     * Constructs a polynomial from its coefficients, constant term first.
+     *
+     * @param coefficients The coefficients.
+     * @throws IllegalArgumentException If there are no coefficients.
+     */
+    public ComplexPolynomial(DoubleComplex... coefficients) {
+        this(Arrays.stream(coefficients).mapToDouble(DoubleComplex::getReal).toArray(),
+                Arrays.stream(coefficients).mapToDouble(DoubleComplex::getImaginary).toArray());
+    }
+
+    /**
+     * Returns the degree, the index of the last coefficient, even if that coefficient is zero.
+     *
+     * @return The degree.
+     */
+    public int degree() {
+        return real.length - 1;
+    }
+
+    /**
+     * Evaluates the polynomial at one point.
+     *
+     * @param x The point.
+     * @return The value.
+     */
+    public DoubleComplex evaluate(DoubleComplex x) {
+        double xr = x.getReal();
+        double xi = x.getImaginary();
+        int degree = degree();
+        double valueReal = real[degree];
+        double valueImaginary = imaginary[degree];
+        for (int d = degree - 1; d >= 0; d--) {
+            double r = valueReal * xr - valueImaginary * xi + real[d];
+            valueImaginary = valueReal * xi + valueImaginary * xr + imaginary[d];
+            valueReal = r;
+        }
+        return new DoubleComplex(valueReal, valueImaginary);
+    }
+
+    /**
+     * Evaluates the polynomial at many points, in parallel if the batch is large and the common pool has
+     * several threads. Each value equals evaluate at the same point.
+     *
+     * @param xReal The real parts of the points.
+     * @param xImaginary The imaginary parts of the points.
+     * @param outReal Receives the real parts of the values.
+     * @param outImaginary Receives the imaginary parts of the values.
+     * @throws IllegalArgumentException If the arrays differ in length or an output array is an input array.
+     */
+    public void evaluate(double[] xReal, double[] xImaginary, double[] outReal, double[] outImaginary) {
+        long work = (long) xReal.length * real.length;
+        evaluate(xReal, xImaginary, outReal, outImaginary,
+                work >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1);
+    }
+
+    /**
+     * Evaluates the polynomial at many points. Each value equals evaluate at the same point.
+     *
+     * @param xReal The real parts of the points.
+     * @param xImaginary The imaginary parts of the points.
+     * @param outReal Receives the real parts of the values.
+     * @param outImaginary Receives the imaginary parts of the values.
+     * @param parallel Whether to split the chunks over the common ForkJoin pool.
+     * @throws IllegalArgumentException If the arrays differ in length or an output array is an input array.
+     */
+    public void evaluate(double[] xReal, double[] xImaginary, double[] outReal, double[] outImaginary,
+                         boolean parallel) {
+        int n = xReal.length;
+        if (xImaginary.length != n || outReal.length != n || outImaginary.length != n) {
+            throw new IllegalArgumentException("Arrays differ in length: " + n + ", " + xImaginary.length + ", "
+                    + outReal.length + " and " + outImaginary.length);
+        }
+        // The outputs hold the running values while the points are still being read.
+        if (outReal == xReal || outReal == xImaginary || outImaginary == xReal || outImaginary == xImaginary
+                || outReal == outImaginary) {
+            throw new IllegalArgumentException("Output arrays must not be input arrays or each other");
+        }
+        if (parallel && n > CHUNK) {
+            ForkJoinPool.commonPool().invoke(new ChunkTask(this, xReal, xImaginary, outReal, outImaginary, 0, n));
+        } else {
+            evaluateRange(xReal, xImaginary, outReal, outImaginary, 0, n);
+        }
+    }
+
+    /**
+     * Evaluates the polynomial at a range of points, chunk by chunk.
+     *
+     * @param xReal The real parts of the points.
+     * @param xImaginary The imaginary parts of the points.
+     * @param outReal Receives the real parts of the values.
+     * @param outImaginary Receives the imaginary parts of the values.
+     * @param from The first point.
+     * @param to One past the last point.
+     */
+    private void evaluateRange(double[] xReal, double[] xImaginary, double[] outReal, double[] outImaginary,
+                               int from, int to) {
+        int degree = degree();
+        for (int start = from; start < to; start += CHUNK) {
+            int end = Math.min(to, start + CHUNK);
+            Arrays.fill(outReal, start, end, real[degree]);
+            Arrays.fill(outImaginary, start, end, imaginary[degree]);
+            for (int d = degree - 1; d >= 0; d--) {
+                double cr = real[d];
+                double ci = imaginary[d];
+                for (int p = start; p < end; p++) {
+                    double vr = outReal[p];
+                    double vi = outImaginary[p];
+                    double xr = xReal[p];
+                    double xi = xImaginary[p];
+                    outReal[p] = vr * xr - vi * xi + cr;
+                    outImaginary[p] = vr * xi + vi * xr + ci;
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates the polynomial at a range of points, splitting the range in halves down to a few chunks.
+     */
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ComplexPolynomial polynomial;
+        private final double[] xReal;
+        private final double[] xImaginary;
+        private final double[] outReal;
+        private final double[] outImaginary;
+        private final int from;
+        private final int to;
+
+        ChunkTask(ComplexPolynomial polynomial, double[] xReal, double[] xImaginary, double[] outReal,
+                  double[] outImaginary, int from, int to) {
+            this.polynomial = polynomial;
+            this.xReal = xReal;
+            this.xImaginary = xImaginary;
+            this.outReal = outReal;
+            this.outImaginary = outImaginary;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if ((long) (to - from) * polynomial.real.length <= PARALLEL_THRESHOLD / 8 || to - from <= CHUNK) {
+                polynomial.evaluateRange(xReal, xImaginary, outReal, outImaginary, from, to);
+                return;
+            }
+            // Split at a chunk boundary so that chunks stay whole.
+            int middle = from + ((to - from) / 2 + CHUNK - 1) / CHUNK * CHUNK;
+            invokeAll(new ChunkTask(polynomial, xReal, xImaginary, outReal, outImaginary, from, middle),
+                    new ChunkTask(polynomial, xReal, xImaginary, outReal, outImaginary, middle, to));
+        }
+    }
+}
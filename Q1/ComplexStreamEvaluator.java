@@ -0,0 +1,356 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Evaluates a stream of records "real1 imaginary1 real2 imaginary2 operation", one per line, in a single
+ * process. Each record gives the same output line as ComplexNumberCalculator.main with those five arguments;
+ * a record whose numbers do not parse or that ends before its operation gives "Invalid record: " followed
+ * by the record. A record may also give its operands as two complex literals in the output format, as in
+ * "3+4i 1-2i mul".
+ * The input is read in large blocks that end at a line break and parsed straight from the bytes with
+ * ComplexCodec, which also formats the results into its byte buffer; the buffer is written once per
+ * block. With more than one thread, blocks are evaluated in parallel and their outputs are written in
+ * input order.
+ */
+class ComplexStreamEvaluator {
+    // Input block size; a block is cut at the last line break it contains.
+    private static final int BLOCK_SIZE = 1 << 20;
+
+    private static final String INVALID_OPERATION = "Invalid operation. Please try again!";
+
+    /**
+     * Evaluates all records of an input stream.
+     *
+     * @param in The records.
+     * @param out Receives one result line per record; blank lines are skipped.
+     * @param threads The number of blocks evaluated at the same time.
+     * @throws IOException If reading or writing fails.
+     */
+    public static void evaluate(InputStream in, OutputStream out, int threads) throws IOException {
+        if (threads <= 1) {
+            ComplexCodec output = new ComplexCodec(BLOCK_SIZE);
+            BlockReader reader = new BlockReader(in);
+            byte[] block;
+            while ((block = reader.next()) != null) {
+                evaluateBlock(block, reader.length(), output);
+                output.writeTo(out);
+            }
+            out.flush();
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // At most two blocks per thread are in flight; the oldest is written as soon as it is done.
+            Deque<Future<ComplexCodec>> pending = new ArrayDeque<>();
+            BlockReader reader = new BlockReader(in);
+            byte[] block;
+            while ((block = reader.next()) != null) {
+                byte[] data = Arrays.copyOf(block, reader.length());
+                pending.add(executor.submit(() -> {
+                    ComplexCodec output = new ComplexCodec(data.length);
+                    evaluateBlock(data, data.length, output);
+                    return output;
+                }));
+                if (pending.size() >= 2 * threads) {
+                    await(pending.poll()).writeTo(out);
+                }
+            }
+            while (!pending.isEmpty()) {
+                await(pending.poll()).writeTo(out);
+            }
+            out.flush();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the output of a block.
+     *
+     * @param output The pending output.
+     * @return The output.
+     * @throws IOException If the evaluation failed or the wait was interrupted.
+     */
+    private static ComplexCodec await(Future<ComplexCodec> output) throws IOException {
+        try {
+            return output.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Block evaluation failed: " + e.getCause(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while evaluating", e);
+        }
+    }
+
+    /**
+     * Evaluates the records of a block of whole lines.
+     *
+     * @param data The block.
+     * @param length The number of bytes of the block.
+     * @param output Parses the operands and receives the result lines.
+     */
+    static void evaluateBlock(byte[] data, int length, ComplexCodec output) {
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && data[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            evaluateLine(data, lineStart, lineEnd, output);
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    /**
+     * Evaluates one record and appends its result line.
+     *
+     * @param data The bytes holding the record.
+     * @param from The first byte of the line.
+     * @param to One past the last byte of the line, excluding the line break.
+     * @param output Parses the operands and receives the result line.
+     */
+    static void evaluateLine(byte[] data, int from, int to, ComplexCodec output) {
+        int position = skipSpaces(data, from, to);
+        if (position == to) {
+            return; // Blank line
+        }
+        // Both operands are packed as they are parsed, so a record allocates nothing.
+        long a;
+        long b;
+        int end = tokenEnd(data, position, to);
+        if (data[end - 1] == 'i') {
+            // Two complex literals
+            if (!output.parseComplex(data, position, end)) {
+                invalidRecord(data, from, to, output);
+                return;
+            }
+            a = output.value();
+            position = skipSpaces(data, end, to);
+            end = tokenEnd(data, position, to);
+            if (!output.parseComplex(data, position, end)) {
+                invalidRecord(data, from, to, output);
+                return;
+            }
+            b = output.value();
+            position = skipSpaces(data, end, to);
+        } else {
+            // Four int parts
+            a = 0;
+            b = 0;
+            for (int i = 0; i < 4; i++) {
+                end = tokenEnd(data, position, to);
+                long value = ComplexCodec.parseInt(data, position, end);
+                if (value == ComplexCodec.INVALID) {
+                    invalidRecord(data, from, to, output);
+                    return;
+                }
+                if (i < 2) {
+                    a = (a << 32) | (value & 0xFFFFFFFFL);
+                } else {
+                    b = (b << 32) | (value & 0xFFFFFFFFL);
+                }
+                position = skipSpaces(data, end, to);
+            }
+        }
+        if (position == to) {
+            // No operation after the operands: malformed like any other short record.
+            invalidRecord(data, from, to, output);
+            return;
+        }
+        int operationEnd = tokenEnd(data, position, to);
+        // Like main, any fields after the operation are ignored.
+        if (matches(data, position, operationEnd, "add")) {
+            output.appendComplex(PackedComplex.sum(a, b));
+        } else if (matches(data, position, operationEnd, "sub")) {
+            output.appendComplex(PackedComplex.sub(a, b));
+        } else if (matches(data, position, operationEnd, "mul")) {
+            output.appendComplex(PackedComplex.mul(a, b));
+        } else if (matches(data, position, operationEnd, "equal")) {
+            output.appendAscii(PackedComplex.equal(a, b) ? "true" : "false");
+        } else {
+            output.appendAscii(INVALID_OPERATION);
+        }
+        output.newLine();
+    }
+
+    /**
+     * Appends the result line of a record whose operands do not parse or that has no operation.
+     *
+     * @param data The bytes holding the record.
+     * @param from The first byte of the line.
+     * @param to One past the last byte of the line.
+     * @param output Receives the result line.
+     */
+    private static void invalidRecord(byte[] data, int from, int to, ComplexCodec output) {
+        output.appendAscii("Invalid record: ").appendBytes(data, from, trimEnd(data, from, to)).newLine();
+    }
+
+    /**
+     * Checks if a token equals an ASCII word.
+     *
+     * @param data The bytes.
+     * @param from The first byte of the token.
+     * @param to One past the last byte of the token.
+     * @param word The word.
+     * @return true if the token is the word, false otherwise.
+     */
+    private static boolean matches(byte[] data, int from, int to, String word) {
+        if (to - from != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (data[from + i] != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips spaces, tabs and carriage returns.
+     *
+     * @param data The bytes.
+     * @param from The first byte to look at.
+     * @param to One past the last byte of the line.
+     * @return The position of the next other byte, or to.
+     */
+    private static int skipSpaces(byte[] data, int from, int to) {
+        while (from < to && isSpace(data[from])) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Finds the end of a token.
+     *
+     * @param data The bytes.
+     * @param from The first byte of the token.
+     * @param to One past the last byte of the line.
+     * @return The position after the token.
+     */
+    private static int tokenEnd(byte[] data, int from, int to) {
+        while (from < to && !isSpace(data[from])) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Finds the end of a line without its trailing spaces.
+     *
+     * @param data The bytes.
+     * @param from The first byte of the line.
+     * @param to One past the last byte of the line.
+     * @return The position after the last byte that is not a space.
+     */
+    private static int trimEnd(byte[] data, int from, int to) {
+        while (to > from && isSpace(data[to - 1])) {
+            to--;
+        }
+        return to;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Evaluates records from a file, or from standard input, and writes the results to standard output.
+     *
+     * @param args Optionally the input file and --threads=N.
+     */
+    public static void main(String[] args) {
+        String file = null;
+        int threads = 1;
+        for (String arg : args) {
+            if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else {
+                file = arg;
+            }
+        }
+        try (InputStream in = file == null ? System.in : new FileInputStream(file)) {
+            evaluate(in, System.out, threads);
+        } catch (Exception e) {
+            System.out.println("Error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads an input stream in blocks that end at a line break. The bytes after the last line break of
+     * a block are carried over to the front of the next one.
+     */
+    private static class BlockReader {
+        private final InputStream in;
+        private byte[] buffer = new byte[BLOCK_SIZE];
+        private int filled;   // Bytes in the buffer
+        private int length;   // Bytes of the current block
+        private boolean end;
+
+        BlockReader(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Reads the next block.
+         *
+         * @return The buffer holding the block in its first length() bytes, or null at the end of input.
+         * @throws IOException If reading fails.
+         */
+        byte[] next() throws IOException {
+            // Move the carried-over partial line to the front.
+            System.arraycopy(buffer, length, buffer, 0, filled - length);
+            filled -= length;
+            length = 0;
+            while (true) {
+                if (end) {
+                    length = filled;
+                    return filled == 0 ? null : buffer;
+                }
+                if (filled == buffer.length) {
+                    int lastBreak = lastLineBreak();
+                    if (lastBreak >= 0) {
+                        length = lastBreak + 1;
+                        return buffer;
+                    }
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2); // A line longer than a block
+                }
+                int read = in.read(buffer, filled, buffer.length - filled);
+                if (read < 0) {
+                    end = true;
+                } else {
+                    filled += read;
+                }
+            }
+        }
+
+        /**
+         * Returns the number of bytes of the block returned by the last call to next.
+         *
+         * @return The block length.
+         */
+        int length() {
+            return length;
+        }
+
+        private int lastLineBreak() {
+            for (int i = filled - 1; i >= 0; i--) {
+                if (buffer[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
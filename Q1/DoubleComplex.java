@@ -0,0 +1,190 @@
+/**
+ * An immutable complex number with double parts. The parts are final primitive fields, so nothing is
+ * boxed, and a short-lived DoubleComplex inside a loop is usually scalar-replaced by the JIT, leaving
+ * only the double arithmetic. Products use fused multiply-add, which rounds once instead of twice.
+ * A zero divisor gives infinite or NaN parts, as double division does.
+ */
+final class DoubleComplex implements Complex<DoubleComplex> {
+    public static final DoubleComplex ZERO = new DoubleComplex(0, 0);
+    public static final DoubleComplex ONE = new DoubleComplex(1, 0);
+    public static final DoubleComplex I = new DoubleComplex(0, 1);
+
+    private final double real;      // The real part of the complex number
+    private final double imaginary; // The imaginary part of the complex number
+
+    /**
+     * Constructs a DoubleComplex with specified real and imaginary parts.
+     *
+     * @param real The real part of the complex number.
+     * @param imaginary The imaginary part of the complex number.
+     */
+    public DoubleComplex(double real, double imaginary) {
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    /**
+     * Converts an int complex number.
+     *
+     * @param number The complex number.
+     * @return The same value with double parts.
+     */
+    public static DoubleComplex of(ComplexNumber number) {
+        return new DoubleComplex(number.getReal(), number.getImaginary());
+    }
+
+    /**
+     * Constructs a complex number from its polar form.
+     *
+     * @param modulus The distance from zero.
+     * @param argument The angle from the positive real axis, in radians.
+     * @return The complex number.
+     */
+    public static DoubleComplex fromPolar(double modulus, double argument) {
+        return new DoubleComplex(modulus * Math.cos(argument), modulus * Math.sin(argument));
+    }
+
+    /**
+     * Returns the real part of the complex number.
+     *
+     * @return The real part of the complex number.
+     */
+    public double getReal() {
+        return real;
+    }
+
+    /**
+     * Returns the imaginary part of the complex number.
+     *
+     * @return The imaginary part of the complex number.
+     */
+    public double getImaginary() {
+        return imaginary;
+    }
+
+    @Override
+    public DoubleComplex add(DoubleComplex other) {
+        return new DoubleComplex(real + other.real, imaginary + other.imaginary);
+    }
+
+    @Override
+    public DoubleComplex sub(DoubleComplex other) {
+        return new DoubleComplex(real - other.real, imaginary - other.imaginary);
+    }
+
+    @Override
+    public DoubleComplex mul(DoubleComplex other) {
+        return new DoubleComplex(Math.fma(real, other.real, -imaginary * other.imaginary),
+                Math.fma(real, other.imaginary, imaginary * other.real));
+    }
+
+    /**
+     * Calculates the quotient of this number and another with Smith's algorithm, which scales by the
+     * larger part of the divisor so that no intermediate overflows when the quotient itself does not.
+     *
+     * @param other The divisor.
+     * @return The quotient.
+     */
+    @Override
+    public DoubleComplex div(DoubleComplex other) {
+        double c = other.real;
+        double d = other.imaginary;
+        double quotientReal;
+        double quotientImaginary;
+        if (Math.abs(c) >= Math.abs(d)) {
+            double ratio = d / c;
+            double denominator = Math.fma(d, ratio, c);
+            quotientReal = Math.fma(imaginary, ratio, real) / denominator;
+            quotientImaginary = Math.fma(-real, ratio, imaginary) / denominator;
+        } else {
+            double ratio = c / d;
+            double denominator = Math.fma(c, ratio, d);
+            quotientReal = Math.fma(real, ratio, imaginary) / denominator;
+            quotientImaginary = Math.fma(imaginary, ratio, -real) / denominator;
+        }
+        // A single allocation site, so the JIT can still scalar-replace the result.
+        return new DoubleComplex(quotientReal, quotientImaginary);
+    }
+
+    @Override
+    public DoubleComplex conjugate() {
+        return new DoubleComplex(real, -imaginary);
+    }
+
+    /**
+     * Raises this number to an integer power by repeated squaring; a negative exponent gives the
+     * reciprocal of the positive power.
+     *
+     * @param exponent The exponent.
+     * @return This number to the given power.
+     */
+    @Override
+    public DoubleComplex pow(int exponent) {
+        double resultReal = 1;
+        double resultImaginary = 0;
+        double squareReal = real;
+        double squareImaginary = imaginary;
+        for (long e = Math.abs((long) exponent); e != 0; e >>>= 1) {
+            if ((e & 1) != 0) {
+                double r = Math.fma(resultReal, squareReal, -resultImaginary * squareImaginary);
+                resultImaginary = Math.fma(resultReal, squareImaginary, resultImaginary * squareReal);
+                resultReal = r;
+            }
+            double r = Math.fma(squareReal, squareReal, -squareImaginary * squareImaginary);
+            squareImaginary = 2 * squareReal * squareImaginary;
+            squareReal = r;
+        }
+        DoubleComplex result = new DoubleComplex(resultReal, resultImaginary);
+        return exponent < 0 ? ONE.div(result) : result;
+    }
+
+    /**
+     * Raises this number to a real power through the polar form.
+     *
+     * @param exponent The exponent.
+     * @return The principal value of this number to the given power.
+     */
+    public DoubleComplex pow(double exponent) {
+        if (real == 0 && imaginary == 0) {
+            // Like Math.pow(0, exponent), which the polar form would turn into NaN parts.
+            return exponent > 0 ? ZERO : exponent == 0 ? ONE : new DoubleComplex(Double.POSITIVE_INFINITY, 0);
+        }
+        return fromPolar(Math.pow(modulus(), exponent), argument() * exponent);
+    }
+
+    /**
+     * Returns the modulus, computed without overflow or underflow of the squared parts.
+     *
+     * @return The modulus.
+     */
+    @Override
+    public double modulus() {
+        return Math.hypot(real, imaginary);
+    }
+
+    @Override
+    public double argument() {
+        return Math.atan2(imaginary, real);
+    }
+
+    /**
+     * Checks if this number and another have equal parts, compared with ==, so NaN parts are never equal.
+     *
+     * @param other The number to compare with.
+     * @return true if both parts are equal, false otherwise.
+     */
+    @Override
+    public boolean equal(DoubleComplex other) {
+        return real == other.real && imaginary == other.imaginary;
+    }
+
+    /**
+     * Returns a string representation of the complex number in the format "a+bi" or "a-bi".
+     *
+     * @return A string representation of the complex number.
+     */
+    @Override
+    public String toString() {
+        return real + (Math.copySign(1.0, imaginary) < 0 ? "" : "+") + imaginary + "i";
+    }
+}